@@ -2,9 +2,11 @@ package ifsp.edu.projeto.cortaai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class CortaaiApplication {
 
     public static void main(final String[] args) {
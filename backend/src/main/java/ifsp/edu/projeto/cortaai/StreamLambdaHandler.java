@@ -6,15 +6,29 @@ import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ifsp.edu.projeto.cortaai.service.media.MediaJobWorker;
+import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 public class StreamLambdaHandler implements RequestStreamHandler {
     private static SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Preenchido pelo MediaJobWorkerRegistrar quando o contexto do Spring sobe
+    private static volatile MediaJobWorker mediaJobWorker;
+
     static {
+        // O ambiente da Lambda fica congelado entre as invocações: os workers de mídia em threads de fundo
+        // não rodam lá. A fila media_jobs é processada pelas invocações agendadas (ver handleRequest).
+        System.setProperty("app.media.jobs.enabled", "false");
         try {
             handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(CortaaiApplication.class);
         } catch (ContainerInitializationException e) {
@@ -26,6 +40,31 @@ public class StreamLambdaHandler implements RequestStreamHandler {
     @Override
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
             throws IOException {
-        handler.proxyStream(inputStream, outputStream, context);
+        final byte[] event = inputStream.readAllBytes();
+        if (isScheduledEvent(event)) {
+            // Regra agendada do EventBridge (ex: a cada minuto): processa a fila de mídia nesta invocação
+            final int processed = mediaJobWorker.drain(context::getRemainingTimeInMillis);
+            outputStream.write(("{\"processedMediaJobs\":" + processed + "}").getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        handler.proxyStream(new ByteArrayInputStream(event), outputStream, context);
+    }
+
+    private static boolean isScheduledEvent(byte[] event) {
+        try {
+            final JsonNode node = OBJECT_MAPPER.readTree(event);
+            return node != null
+                    && "aws.events".equals(node.path("source").asText())
+                    && "Scheduled Event".equals(node.path("detail-type").asText());
+        } catch (IOException e) {
+            return false; // Não é JSON válido: o proxy do API Gateway responde o erro
+        }
+    }
+
+    @Component
+    static class MediaJobWorkerRegistrar {
+        MediaJobWorkerRegistrar(final MediaJobWorker worker) {
+            mediaJobWorker = worker;
+        }
     }
-}
\ No newline at end of file
+}
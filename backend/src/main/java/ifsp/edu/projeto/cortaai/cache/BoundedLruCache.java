@@ -0,0 +1,80 @@
+package ifsp.edu.projeto.cortaai.cache;
+
+import ifsp.edu.projeto.cortaai.dto.CacheStatsDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Cache em memória com tamanho máximo e descarte do item usado há mais tempo (LRU).
+ * Mantém contadores de acertos, faltas e descartes para ajudar a dimensionar o cache.
+ */
+public class BoundedLruCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedLruCache(final String name, final int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedLruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * Retorna o valor em cache apenas se ele ainda for válido. Valores inválidos são removidos
+     * e contados como falta.
+     */
+    public synchronized V get(K key, Predicate<V> isValid) {
+        V value = entries.get(key);
+        if (value != null && isValid.test(value)) {
+            hits++;
+            return value;
+        }
+        if (value != null) {
+            entries.remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void removeIf(Predicate<K> keyFilter) {
+        entries.keySet().removeIf(keyFilter);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDTO stats() {
+        long requests = hits + misses;
+        double hitRate = requests == 0 ? 0.0 : (double) hits / requests;
+        return new CacheStatsDTO(name, entries.size(), maxSize, hits, misses, evictions, hitRate);
+    }
+}
@@ -0,0 +1,129 @@
+package ifsp.edu.projeto.cortaai.cache;
+
+import ifsp.edu.projeto.cortaai.dto.ActivityDTO;
+import ifsp.edu.projeto.cortaai.dto.BarberDTO;
+import ifsp.edu.projeto.cortaai.dto.BarbershopDTO;
+import ifsp.edu.projeto.cortaai.dto.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache das listagens públicas do catálogo: barbearias, serviços e barbeiros de cada barbearia.
+ *
+ * Segue a mesma ideia do AvailabilityCache: cada resultado guarda a versão da barbearia (ou da
+ * listagem geral) do momento em que começou a ser calculado, e as versões só mudam depois do commit
+ * das escritas (ver CatalogChangeListener). Um resultado com versão antiga é descartado na leitura.
+ *
+ * As versões só acompanham as escritas feitas nesta instância: uma alteração commitada em outra
+ * instância (ou no container que processa os jobs de mídia) não chega aqui. Por isso cada resultado
+ * também expira ttl-ms depois de carregado, e a exclusão de imagens substituídas espera mais que isso
+ * (ver app.media.jobs.replaced-delete-delay-ms).
+ *
+ * As mesmas versões servem de ETag para os GETs condicionais, sem ida ao banco. Como são contadores
+ * desta instância, o ETag leva também um id sorteado na subida: outra instância (ou um restart)
+ * nunca responde 304 para um ETag que não emitiu. Pelo mesmo motivo da expiração, o ETag muda a cada
+ * janela de ttl-ms, e o cliente volta a receber o corpo pelo menos uma vez por janela.
+ */
+@Component
+public class CatalogCache {
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<UUID, Long> shopVersions = new ConcurrentHashMap<>();
+    private volatile long listingVersion = 0;
+    private final long ttlMs;
+    private final long ttlNanos;
+
+    private final BoundedLruCache<Boolean, Versioned<List<BarbershopDTO>>> barbershops;
+    private final BoundedLruCache<UUID, Versioned<List<ActivityDTO>>> activities;
+    private final BoundedLruCache<UUID, Versioned<List<BarberDTO>>> barbers;
+
+    public CatalogCache(@Value("${app.catalog.cache.max-entries:1000}") final int maxEntries,
+                        @Value("${app.catalog.cache.ttl-ms:60000}") final long ttlMs) {
+        this.ttlMs = Math.max(1, ttlMs);
+        this.ttlNanos = this.ttlMs * 1_000_000;
+        this.barbershops = new BoundedLruCache<>("catalog-barbershops", 2);
+        this.activities = new BoundedLruCache<>("catalog-activities", maxEntries);
+        this.barbers = new BoundedLruCache<>("catalog-barbers", maxEntries);
+    }
+
+    public List<BarbershopDTO> getBarbershops(boolean includeHighlights, Supplier<List<BarbershopDTO>> loader) {
+        final long version = listingVersion;
+        Versioned<List<BarbershopDTO>> cached = barbershops.get(includeHighlights,
+                v -> v.version() == listingVersion && isFresh(v));
+        if (cached != null) {
+            return cached.value();
+        }
+        List<BarbershopDTO> value = List.copyOf(loader.get());
+        barbershops.put(includeHighlights, new Versioned<>(version, System.nanoTime(), value));
+        return value;
+    }
+
+    public List<ActivityDTO> getActivities(UUID barbershopId, Supplier<List<ActivityDTO>> loader) {
+        return getForShop(activities, barbershopId, loader);
+    }
+
+    public List<BarberDTO> getBarbers(UUID barbershopId, Supplier<List<BarberDTO>> loader) {
+        return getForShop(barbers, barbershopId, loader);
+    }
+
+    /**
+     * ETag da listagem de barbearias. Deve ser lido ANTES da listagem: se uma escrita acontecer no meio,
+     * o cliente recebe o corpo novo com o ETag antigo (e só perde um 304), nunca o contrário.
+     */
+    public String barbershopsEtag(boolean includeHighlights) {
+        return instanceId + "-" + window() + "-" + (includeHighlights ? "h" : "s") + listingVersion;
+    }
+
+    /**
+     * ETag das listagens de uma barbearia (serviços e barbeiros). Mesma regra: ler antes da listagem.
+     */
+    public String shopEtag(UUID barbershopId) {
+        return instanceId + "-" + window() + "-" + barbershopId + "-" + shopVersions.getOrDefault(barbershopId, 0L);
+    }
+
+    /**
+     * Invalida as listagens da barbearia e a listagem geral de barbearias.
+     */
+    public void invalidateShop(UUID barbershopId) {
+        shopVersions.put(barbershopId, sequence.incrementAndGet());
+        listingVersion = sequence.incrementAndGet();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(barbershops.stats(), activities.stats(), barbers.stats());
+    }
+
+    private <V> List<V> getForShop(BoundedLruCache<UUID, Versioned<List<V>>> cache, UUID barbershopId,
+                                   Supplier<List<V>> loader) {
+        final long version = shopVersions.getOrDefault(barbershopId, 0L);
+        Versioned<List<V>> cached = cache.get(barbershopId,
+                v -> v.version() == shopVersions.getOrDefault(barbershopId, 0L) && isFresh(v));
+        if (cached != null) {
+            return cached.value();
+        }
+        List<V> value = List.copyOf(loader.get());
+        cache.put(barbershopId, new Versioned<>(version, System.nanoTime(), value));
+        return value;
+    }
+
+    private boolean isFresh(Versioned<?> versioned) {
+        return System.nanoTime() - versioned.loadedAtNanos() < ttlNanos;
+    }
+
+    // Janela de ttl-ms em que o ETag vale
+    private long window() {
+        return System.currentTimeMillis() / ttlMs;
+    }
+
+    private record Versioned<V>(long version, long loadedAtNanos, V value) {
+    }
+}
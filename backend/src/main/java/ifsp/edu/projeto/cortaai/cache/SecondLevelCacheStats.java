@@ -0,0 +1,42 @@
+package ifsp.edu.projeto.cortaai.cache;
+
+import ifsp.edu.projeto.cortaai.dto.CacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contadores das regiões do cache de segundo nível do Hibernate, no mesmo formato dos caches em memória.
+ * Dependem de hibernate.generate_statistics; o tamanho máximo fica no ehcache.xml (aqui vai -1).
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheStats(final EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public List<CacheStatsDTO> stats() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final List<CacheStatsDTO> result = new ArrayList<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            final CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+            long requests = hits + misses;
+            result.add(new CacheStatsDTO("l2:" + regionName, Math.max(region.getElementCountInMemory(), 0), -1,
+                    hits, misses, 0, requests == 0 ? 0.0 : (double) hits / requests));
+        }
+        return result;
+    }
+}
@@ -1,11 +1,15 @@
 package ifsp.edu.projeto.cortaai.config;
 
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import ifsp.edu.projeto.cortaai.security.TokenRevocationList;
 import ifsp.edu.projeto.cortaai.service.JwtTokenService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.RequiredTypeException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -16,15 +20,30 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    // E-mails com acesso aos contadores internos (caches, limitador de login): ROLE_OPERATOR
+    private final Set<String> operatorEmails;
 
-    public JwtAuthorizationFilter(JwtTokenService jwtTokenService) {
+    public JwtAuthorizationFilter(JwtTokenService jwtTokenService, TokenRevocationList tokenRevocationList,
+                                  @Value("${app.security.operator-emails:}") List<String> operatorEmails) {
         this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.operatorEmails = operatorEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -50,24 +69,32 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 3. Cria a lista de Autoridades (Roles) com base nas claims
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        String userType = claims.get("userType", String.class);
+        // 3. Monta o usuário autenticado a partir das claims (tokens sem id válido são ignorados)
+        // Tokens revogados (logout ou claims desatualizadas) também seguem sem autenticação.
+        // A consulta é feita em memória (filtro de Bloom), sem acessar o banco.
+        final AuthenticatedUser user = toAuthenticatedUser(claims);
+        if (user == null || tokenRevocationList.isRevoked(user.userId(), user.tokenId(), issuedAtMillis(claims))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if ("CUSTOMER".equals(userType)) {
+        // 4. Cria a lista de Autoridades (Roles) com base nas claims
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (user.isCustomer()) {
             authorities.add(new SimpleGrantedAuthority("ROLE_CUSTOMER"));
-        } else if ("BARBER".equals(userType)) {
+        } else if (user.isBarber()) {
             authorities.add(new SimpleGrantedAuthority("ROLE_BARBER"));
-            Boolean isOwner = claims.get("isOwner", Boolean.class);
-            if (isOwner != null && isOwner) {
+            if (user.owner()) {
                 authorities.add(new SimpleGrantedAuthority("ROLE_OWNER"));
             }
         }
+        if (user.email() != null && operatorEmails.contains(user.email().toLowerCase(Locale.ROOT))) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_OPERATOR"));
+        }
 
-        // 4. Cria o objeto de Autenticação
-        // O "principal" é o e-mail (subject), "credentials" é nulo, e passamos as autoridades
+        // O "principal" é o AuthenticatedUser (getName() continua sendo o e-mail), "credentials" é nulo
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                claims.getSubject(), // email
+                user,
                 null,
                 authorities
         );
@@ -77,4 +104,40 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Emissão em milissegundos (claim iatMs); tokens emitidos antes dela só têm o iat em segundos
+    private Long issuedAtMillis(Claims claims) {
+        try {
+            Long issuedAtMs = claims.get("iatMs", Long.class);
+            if (issuedAtMs != null) {
+                return issuedAtMs;
+            }
+        } catch (RequiredTypeException e) {
+            // Claim em formato inesperado: usa o iat
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : null;
+    }
+
+    private AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        try {
+            String userId = claims.get("userId", String.class);
+            if (userId == null) {
+                return null;
+            }
+            String barbershopId = claims.get("barbershopId", String.class);
+            String tokenId = claims.getId();
+            Boolean isOwner = claims.get("isOwner", Boolean.class);
+            return new AuthenticatedUser(
+                    UUID.fromString(userId),
+                    claims.getSubject(), // email
+                    claims.get("userType", String.class),
+                    isOwner != null && isOwner,
+                    barbershopId != null ? UUID.fromString(barbershopId) : null,
+                    tokenId != null ? UUID.fromString(tokenId) : null
+            );
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
\ No newline at end of file
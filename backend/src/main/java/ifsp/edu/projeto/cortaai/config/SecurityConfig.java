@@ -1,17 +1,23 @@
 package ifsp.edu.projeto.cortaai.config;
 
+import ifsp.edu.projeto.cortaai.security.BoundedPasswordEncoder;
+import ifsp.edu.projeto.cortaai.security.CalibratedBCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.Customizer;
 
+import java.util.Map;
+
 @Configuration
 public class SecurityConfig {
 
@@ -21,9 +27,31 @@ public class SecurityConfig {
         this.jwtAuthorizationFilter = jwtAuthorizationFilter;
     }
 
+    // O BCrypt roda em um pool limitado, fora das threads das requisições (ver BoundedPasswordEncoder)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.threads:0}") final int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") final int queueCapacity,
+            @Value("${app.security.password-hashing.timeout-ms:5000}") final long timeoutMs,
+            @Value("${app.security.password-hashing.bcrypt.strength:0}") final int bcryptStrength,
+            @Value("${app.security.password-hashing.bcrypt.target-ms:250}") final long bcryptTargetMs,
+            @Value("${app.security.password-hashing.bcrypt.min-strength:10}") final int bcryptMinStrength,
+            @Value("${app.security.password-hashing.bcrypt.max-strength:14}") final int bcryptMaxStrength) {
+        // 0 = calibra o custo na subida, para caber no orçamento de latência nesta CPU
+        final boolean pinned = bcryptStrength > 0;
+        final int strength = pinned
+                ? bcryptStrength
+                : CalibratedBCryptPasswordEncoder.calibrate(bcryptMinStrength, bcryptMaxStrength, bcryptTargetMs);
+        final CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(strength, pinned);
+
+        // Hashes novos levam o prefixo {bcrypt}; os antigos, sem prefixo, continuam válidos
+        // e são regravados no próximo login (upgradeEncoding)
+        final DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // 0 = núcleos - 1: sempre sobra um núcleo para as demais requisições
+        final int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new BoundedPasswordEncoder(delegating, strength, poolSize, queueCapacity, timeoutMs);
     }
 
     @Bean
@@ -33,14 +61,20 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Sem token válido (ex: token de acesso expirado) responde 401, e não 403:
+                // é o sinal para o front-end renovar a sessão em /refresh
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
 
                 .authorizeHttpRequests(authorize -> authorize
                         // 1. Endpoints PÚBLICOS (Registro, Login, Swagger, Listagens)
                         .requestMatchers(
                                 "/api/customers/register",
                                 "/api/customers/login",
+                                "/api/customers/refresh",
                                 "/api/barbers/register",
-                                "/api/barbers/login"
+                                "/api/barbers/login",
+                                "/api/barbers/refresh"
                         ).permitAll()
                         .requestMatchers(
                                 "/",
@@ -51,12 +85,17 @@ public class SecurityConfig {
                                 "/api/barbershops",
                                 "/api/barbershops/{shopId}/activities",
                                 "/api/barbershops/{shopId}/barbers",
-                                "/api/barbers/{id}/availability" // Consulta de disponibilidade
+                                "/api/barbershops/{shopId}/availability",
+                                "/api/availability/next",
+                                "/api/barbers/{id}/availability", // Consulta de disponibilidade
+                                "/api/barbers/{id}/availability/capacity",
+                                "/api/barbers/{id}/availability/range"
                         ).permitAll()
 
                         // 2. Endpoints de CLIENTE (ROLE_CUSTOMER)
                         .requestMatchers("/api/customers/me/**").hasRole("CUSTOMER")
-                        .requestMatchers(HttpMethod.GET, "/api/appointments/customer/me").hasRole("CUSTOMER")
+                        .requestMatchers(HttpMethod.GET, "/api/appointments/customer/me", "/api/appointments/customer/me/page").hasRole("CUSTOMER")
+                        .requestMatchers("/api/barbers/{id}/holds/**").hasRole("CUSTOMER")
 
                         // 3. Endpoints de AGENDAMENTO (Qualquer usuário autenticado)
                         // A lógica de quem pode fazer o quê (cliente, dono)
@@ -77,7 +116,14 @@ public class SecurityConfig {
                         // Mas apenas um DONO pode gerenciar a loja
                         .requestMatchers("/api/barbershops/my-shop/**").hasRole("OWNER")
 
-                        // 6. Qualquer outra requisição deve ser autenticada
+                        // 6. Contadores internos (dimensionamento de caches, limitador de login): só operadores
+                        .requestMatchers(
+                                "/api/cache-stats",
+                                "/api/availability/cache-stats",
+                                "/api/login-throttle-stats"
+                        ).hasRole("OPERATOR")
+
+                        // 7. Qualquer outra requisição deve ser autenticada
                         .anyRequest().authenticated()
                 )
 
@@ -1,12 +1,15 @@
 package ifsp.edu.projeto.cortaai.controller;
 
+import ifsp.edu.projeto.cortaai.dto.AppointmentFeedQueryDTO;
+import ifsp.edu.projeto.cortaai.dto.AppointmentPageDTO;
 import ifsp.edu.projeto.cortaai.dto.AppointmentRequestDTO; // NOVO DTO
 import ifsp.edu.projeto.cortaai.dto.AppointmentsDTO;
 import ifsp.edu.projeto.cortaai.service.AppointmentsService;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 
-import java.security.Principal;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
@@ -36,68 +39,93 @@ public class AppointmentsController {
     }
 
     @GetMapping("/barbershop/my-shop") // ROTA ALTERADA
-    public ResponseEntity<List<AppointmentsDTO>> getAppointmentsForBarbershop(Principal principal) { // ALTERADO
+    public ResponseEntity<List<AppointmentsDTO>> getAppointmentsForBarbershop(@AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_OWNER, que já configuramos no JwtAuthorizationFilter)
-        return ResponseEntity.ok(appointmentsService.findForBarbershop(principal.getName()));
+        return ResponseEntity.ok(appointmentsService.findForBarbershop(currentUser));
     }
 
     @GetMapping("/barber/me") // ROTA ALTERADA
-    public ResponseEntity<List<AppointmentsDTO>> getAppointmentsForBarber(Principal principal) { // ALTERADO
+    public ResponseEntity<List<AppointmentsDTO>> getAppointmentsForBarber(@AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_BARBER)
-        return ResponseEntity.ok(appointmentsService.findForBarber(principal.getName()));
+        return ResponseEntity.ok(appointmentsService.findForBarber(currentUser));
     }
 
     @GetMapping("/customer/me")
-    public ResponseEntity<List<AppointmentsDTO>> getAppointmentsForCustomer(Principal principal) {
+    public ResponseEntity<List<AppointmentsDTO>> getAppointmentsForCustomer(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         // (Requer ROLE_CUSTOMER)
-        // O serviço usará o email do principal para buscar os agendamentos do cliente logado
-        return ResponseEntity.ok(appointmentsService.findForCustomer(principal.getName()));
+        // O serviço usará o id do usuário autenticado para buscar os agendamentos do cliente logado
+        return ResponseEntity.ok(appointmentsService.findForCustomer(currentUser));
+    }
+
+    // --- Listagens paginadas (cursor) com filtros from/to/status ---
+    // Ex: GET /api/appointments/barber/me/page?from=2025-11-01T00:00:00-03:00&status=SCHEDULED&limit=50
+    // A próxima página é pedida repetindo os filtros e enviando cursor=<nextCursor>.
+
+    @GetMapping("/barbershop/my-shop/page")
+    public ResponseEntity<AppointmentPageDTO> getAppointmentPageForBarbershop(
+            final AppointmentFeedQueryDTO query, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        // (Requer ROLE_OWNER)
+        return ResponseEntity.ok(appointmentsService.findPageForBarbershop(currentUser, query));
+    }
+
+    @GetMapping("/barber/me/page")
+    public ResponseEntity<AppointmentPageDTO> getAppointmentPageForBarber(
+            final AppointmentFeedQueryDTO query, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        // (Requer ROLE_BARBER)
+        return ResponseEntity.ok(appointmentsService.findPageForBarber(currentUser, query));
+    }
+
+    @GetMapping("/customer/me/page")
+    public ResponseEntity<AppointmentPageDTO> getAppointmentPageForCustomer(
+            final AppointmentFeedQueryDTO query, @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        // (Requer ROLE_CUSTOMER)
+        return ResponseEntity.ok(appointmentsService.findPageForCustomer(currentUser, query));
     }
 
     @PostMapping
     @ApiResponse(responseCode = "201")
     public ResponseEntity<Long> createAppointments(
             @RequestBody @Valid final AppointmentRequestDTO appointmentsDTO,
-            Principal principal) { // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
 
         // (Requer ROLE_CUSTOMER)
-        final Long createdId = appointmentsService.create(appointmentsDTO, principal.getName());
+        final Long createdId = appointmentsService.create(appointmentsDTO, currentUser);
         return new ResponseEntity<>(createdId, HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Long> updateAppointments(@PathVariable(name = "id") final Long id,
                                                    @RequestBody @Valid final AppointmentRequestDTO appointmentsDTO,
-                                                   Principal principal) { // ALTERADO
+                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_CUSTOMER)
-        appointmentsService.update(id, appointmentsDTO, principal.getName());
+        appointmentsService.update(id, appointmentsDTO, currentUser);
         return ResponseEntity.ok(id);
     }
 
     @PatchMapping("/{id}/cancel")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> cancelAppointments(@PathVariable(name = "id") final Long id,
-                                                   Principal principal) { // ALTERADO
+                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_CUSTOMER ou ROLE_OWNER)
-        appointmentsService.cancel(id, principal.getName());
+        appointmentsService.cancel(id, currentUser);
         return ResponseEntity.noContent().build();
     }
     //Endpoint para concluir um agendamento
     @PatchMapping("/{id}/conclude")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> concludeAppointment(@PathVariable(name = "id") final Long id,
-                                                    Principal principal) {
+                                                    @AuthenticationPrincipal AuthenticatedUser currentUser) {
         // (Requer ROLE_BARBER)
-        appointmentsService.conclude(id, principal.getName());
+        appointmentsService.conclude(id, currentUser);
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> deleteAppointments(@PathVariable(name = "id") final Long id,
-                                                   Principal principal) { // ALTERADO
+                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_OWNER)
-        appointmentsService.delete(id, principal.getName());
+        appointmentsService.delete(id, currentUser);
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,46 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.dto.CacheStatsDTO;
+import ifsp.edu.projeto.cortaai.dto.NextSlotDTO;
+import ifsp.edu.projeto.cortaai.service.BarberService;
+import ifsp.edu.projeto.cortaai.service.availability.AvailabilityCache;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(value = "/api/availability", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AvailabilityController {
+
+    private final AvailabilityCache availabilityCache;
+    private final BarberService barberService;
+
+    public AvailabilityController(final AvailabilityCache availabilityCache, final BarberService barberService) {
+        this.availabilityCache = availabilityCache;
+        this.barberService = barberService;
+    }
+
+    // Próximos horários livres (entre todos os barbeiros aptos) para o conjunto de serviços
+    // Ex: GET /api/availability/next?activityIds=...&after=2025-11-20T10:00:00-03:00&limit=5
+    @GetMapping("/next")
+    public ResponseEntity<List<NextSlotDTO>> getNextAvailableSlots(
+            @RequestParam List<UUID> activityIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime after,
+            @RequestParam(required = false) UUID shopId,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(barberService.findNextAvailableSlots(activityIds, after, shopId, limit));
+    }
+
+    // Contadores de acertos/faltas/descartes do cache de disponibilidade (para dimensionamento)
+    @GetMapping("/cache-stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        // (Requer ROLE_OPERATOR)
+        return ResponseEntity.ok(availabilityCache.stats());
+    }
+}
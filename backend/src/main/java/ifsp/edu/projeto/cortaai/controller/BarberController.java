@@ -6,18 +6,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 
 import java.io.IOException;
-import java.security.Principal;
+import java.net.URI;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import ifsp.edu.projeto.cortaai.security.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -25,18 +37,30 @@ import org.springframework.web.multipart.MultipartFile;
 public class BarberController {
 
     private final BarberService barberService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ObjectMapper objectMapper;
 
-    public BarberController(final BarberService barberService) {
+    public BarberController(final BarberService barberService, final ObjectMapper objectMapper,
+                            final LoginRateLimiter loginRateLimiter) {
         this.barberService = barberService;
+        this.objectMapper = objectMapper;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @GetMapping
-    public ResponseEntity<List<BarberDTO>> getAllBarbers() {
+    public ResponseEntity<List<BarberDTO>> getAllBarbers(final WebRequest request) {
+        // 304 quando o cliente já tem a versão atual (If-None-Match / If-Modified-Since)
+        if (ConditionalRequests.notModified(request, barberService.getBarbersVersion())) {
+            return null;
+        }
         return ResponseEntity.ok(barberService.findAll());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BarberDTO> getBarber(@PathVariable(name = "id") final UUID id) {
+    public ResponseEntity<BarberDTO> getBarber(@PathVariable(name = "id") final UUID id, final WebRequest request) {
+        if (ConditionalRequests.notModified(request, barberService.getBarberVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(barberService.get(id));
     }
 
@@ -56,27 +80,51 @@ public class BarberController {
         }
     }
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid final LoginDTO loginDTO) { // TIPO DE RETORNO ALTERADO
+    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid final LoginDTO loginDTO,
+                                                  final HttpServletRequest httpRequest) { // TIPO DE RETORNO ALTERADO
+        // Rejeita rajadas antes de buscar o usuário e rodar o BCrypt
+        final long retryAfterSeconds = loginRateLimiter.tryAcquire(loginDTO.getEmail(), httpRequest.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
         final LoginResponseDTO loginResponse = barberService.login(loginDTO); // TIPO DE RETORNO ALTERADO
+        loginRateLimiter.onSuccess(loginDTO.getEmail());
         return ResponseEntity.ok(loginResponse);
     }
 
+    // Troca o refresh token (de uso único) por um novo par de tokens
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody @Valid final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return ResponseEntity.ok(barberService.refresh(refreshTokenRequestDTO));
+    }
+
+    // Encerra a sessão: revoga o token de acesso atual e, se enviado, o refresh token
+    @PostMapping("/me/logout")
+    public ResponseEntity<Void> logout(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestBody(required = false) @Valid final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        barberService.logout(currentUser, refreshTokenRequestDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/me") // ROTA ALTERADA
     public ResponseEntity<Void> updateBarber(
-            Principal principal, // Usuário autenticado injetado
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // Usuário autenticado injetado
             @RequestBody @Valid final BarberDTO barberDTO) {
 
-        barberService.update(principal.getName(), barberDTO);
+        barberService.update(currentUser, barberDTO);
         return ResponseEntity.ok().build(); // Retorna 200 OK
     }
 
     @PutMapping("/me/work-hours")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> setBarberWorkHours(
-            Principal principal, // Usuário autenticado injetado
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // Usuário autenticado injetado
             @RequestBody @Valid final BarberWorkHoursDTO workHoursDTO) {
 
-        barberService.setWorkHours(principal.getName(), workHoursDTO);
+        barberService.setWorkHours(currentUser, workHoursDTO);
         return ResponseEntity.noContent().build();
     }
 
@@ -84,17 +132,17 @@ public class BarberController {
     @PostMapping("/me/assign-activities")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> assignActivitiesToBarber(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @RequestBody @Valid final BarberActivityAssignDTO assignDTO) {
         // (Requer ROLE_BARBER)
-        barberService.assignActivities(principal.getName(), assignDTO);
+        barberService.assignActivities(currentUser, assignDTO);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me/my-activities")
-    public ResponseEntity<List<ActivityDTO>> getMyActivities(Principal principal) {
+    public ResponseEntity<List<ActivityDTO>> getMyActivities(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         // (Requer ROLE_BARBER)
-        List<ActivityDTO> activities = barberService.getMyAssignedActivities(principal.getName());
+        List<ActivityDTO> activities = barberService.getMyAssignedActivities(currentUser);
         return ResponseEntity.ok(activities);
     }
 
@@ -105,9 +153,9 @@ public class BarberController {
     }
 
     @GetMapping("/me/join-requests/history")
-    public ResponseEntity<List<JoinRequestHistoryDTO>> getBarberJoinRequestHistory(Principal principal) {
+    public ResponseEntity<List<JoinRequestHistoryDTO>> getBarberJoinRequestHistory(@AuthenticationPrincipal AuthenticatedUser currentUser) {
         // (Requer ROLE_BARBER)
-        List<JoinRequestHistoryDTO> history = barberService.getJoinRequestHistory(principal.getName()); // Chama o novo método do serviço
+        List<JoinRequestHistoryDTO> history = barberService.getJoinRequestHistory(currentUser); // Chama o novo método do serviço
         return ResponseEntity.ok(history);
     }
 
@@ -116,19 +164,19 @@ public class BarberController {
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> rejectJoinRequest(
             @PathVariable(name = "requestId") final Long requestId,
-            Principal principal) {
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
         // (Requer ROLE_OWNER)
-        // O serviço usará o e-mail do principal para validar se ele é o dono
+        // O serviço usará o id do usuário autenticado para validar se ele é o dono
         // da barbearia associada ao pedido antes de rejeitá-lo.
-        barberService.rejectJoinRequest(principal.getName(), requestId); // Chama o novo método do serviço
+        barberService.rejectJoinRequest(currentUser, requestId); // Chama o novo método do serviço
         return ResponseEntity.noContent().build();
     }
 
 
     @DeleteMapping("/me") // ROTA ALTERADA
     @ApiResponse(responseCode = "204")
-    public ResponseEntity<Void> deleteBarber(Principal principal) { // Usuário autenticado injetado
-        barberService.delete(principal.getName());
+    public ResponseEntity<Void> deleteBarber(@AuthenticationPrincipal AuthenticatedUser currentUser) { // Usuário autenticado injetado
+        barberService.delete(currentUser);
         return ResponseEntity.noContent().build();
     }
 
@@ -143,6 +191,39 @@ public class BarberController {
         return ResponseEntity.ok(availableSlots);
     }
 
+    // Disponibilidade de até 14 dias em uma única resposta (ex: visão semanal).
+    // A validação e a carga acontecem antes da resposta; o JSON é escrito dia a dia, sem montar a lista inteira.
+    @GetMapping("/{id}/availability/range")
+    public ResponseEntity<StreamingResponseBody> getBarberAvailabilityRange(
+            @PathVariable(name = "id") final UUID id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to,
+            @RequestParam("duration") final int duration) {
+
+        final Stream<DaySlotsDTO> days = barberService.getAvailabilityRange(id, from, to, duration);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                for (Iterator<DaySlotsDTO> it = days.iterator(); it.hasNext(); ) {
+                    generator.writeObject(it.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Horários do dia com os minutos livres contíguos a partir de cada um; o cliente decide
+    // quais combinações de serviços cabem sem refazer a consulta (durations é opcional)
+    @GetMapping("/{id}/availability/capacity")
+    public ResponseEntity<List<SlotCapacityDTO>> getBarberSlotCapacities(
+            @PathVariable(name = "id") final UUID id,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate date,
+            @RequestParam(name = "durations", required = false) final List<Integer> durations) {
+
+        return ResponseEntity.ok(barberService.getSlotCapacities(id, date, durations));
+    }
+
     //Endpoint para obter a disponibilidade do mês
     @GetMapping("/{id}/monthly-availability")
     public ResponseEntity<List<DailyAvailabilityDTO>> getBarberMonthlyAvailability(
@@ -156,14 +237,15 @@ public class BarberController {
 
     // --- NOVO ENDPOINT DE UPLOAD ---
     @PostMapping("/me/upload-photo") // ROTA ALTERADA
-    public ResponseEntity<String> uploadBarberPhoto(
-            Principal principal, // Usuário autenticado injetado
+    public ResponseEntity<MediaJobDTO> uploadBarberPhoto(
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // Usuário autenticado injetado
             @RequestParam("file") MultipartFile file) {
         try {
-            String imageUrl = barberService.updateBarberProfilePhoto(principal.getName(), file);
-            return ResponseEntity.ok(imageUrl);
+            MediaJobDTO job = barberService.updateBarberProfilePhoto(currentUser, file);
+            // 202: o upload segue em segundo plano; o andamento é consultado em /api/media-jobs/{jobId}
+            return ResponseEntity.accepted().location(URI.create("/api/media-jobs/" + job.getJobId())).body(job);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Falha no upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
@@ -4,16 +4,21 @@ import ifsp.edu.projeto.cortaai.dto.*;
 import ifsp.edu.projeto.cortaai.service.BarberService;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ifsp.edu.projeto.cortaai.dto.JoinRequestDTO;
 import ifsp.edu.projeto.cortaai.dto.UpdateBarbershopDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.security.Principal;
+import java.net.URI;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,21 +34,52 @@ public class BarbershopController {
 
     // --- Endpoints Públicos (Mosaico de Lojas e Serviços) ---
 
+    // highlights=false devolve a listagem resumida (sem os destaques), mais leve para o mosaico inicial
     @GetMapping("/barbershops")
-    public ResponseEntity<List<BarbershopDTO>> listAllBarbershops() {
-        return ResponseEntity.ok(barberService.listBarbershops());
+    public ResponseEntity<List<BarbershopDTO>> listAllBarbershops(
+            @RequestParam(name = "highlights", defaultValue = "true") final boolean highlights,
+            final WebRequest request) {
+        // ETag das versões do cache (lido antes do corpo); 304 quando o cliente já tem a versão atual.
+        // Com o cache quente, nenhuma das duas chamadas vai ao banco
+        final String etag = barberService.getBarbershopsEtag(highlights);
+        final List<BarbershopDTO> barbershops = barberService.listBarbershops(highlights);
+        if (ConditionalRequests.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(barbershops);
     }
 
     @GetMapping("/barbershops/{shopId}/activities")
     public ResponseEntity<List<ActivityDTO>> listServicesForBarbershop(
-            @PathVariable(name = "shopId") final UUID shopId) {
-        return ResponseEntity.ok(barberService.listActivities(shopId));
+            @PathVariable(name = "shopId") final UUID shopId,
+            final WebRequest request) {
+        final String etag = barberService.getCatalogEtag(shopId);
+        final List<ActivityDTO> activities = barberService.listActivities(shopId);
+        if (ConditionalRequests.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/barbershops/{shopId}/barbers")
     public ResponseEntity<List<BarberDTO>> listBarbersForBarbershop(
-            @PathVariable(name = "shopId") final UUID shopId) {
-        return ResponseEntity.ok(barberService.listBarbersByBarbershop(shopId));
+            @PathVariable(name = "shopId") final UUID shopId,
+            final WebRequest request) {
+        final String etag = barberService.getCatalogEtag(shopId);
+        final List<BarberDTO> barbers = barberService.listBarbersByBarbershop(shopId);
+        if (ConditionalRequests.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(barbers);
+    }
+
+    // Horários livres de todos os barbeiros da loja que realizam os serviços escolhidos
+    @GetMapping("/barbershops/{shopId}/availability")
+    public ResponseEntity<List<BarberAvailabilityDTO>> getBarbershopAvailability(
+            @PathVariable(name = "shopId") final UUID shopId,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate date,
+            @RequestParam("activityIds") final List<UUID> activityIds) {
+        return ResponseEntity.ok(barberService.getBarbershopAvailability(shopId, date, activityIds));
     }
 
     // --- Fluxo 1: Gestão do Dono (Owner) ---
@@ -51,12 +87,12 @@ public class BarbershopController {
     @PostMapping(value = "/barbershops/register-my-shop", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ApiResponse(responseCode = "201")
     public ResponseEntity<BarbershopDTO> createBarbershop(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @RequestPart("shop") @Valid final CreateBarbershopDTO createBarbershopDTO,
             @RequestPart(value = "file", required = false) final MultipartFile file) {
 
         try {
-            final BarbershopDTO createdBarbershop = barberService.createBarbershop(principal.getName(), createBarbershopDTO, file);
+            final BarbershopDTO createdBarbershop = barberService.createBarbershop(currentUser, createBarbershopDTO, file);
             return new ResponseEntity<>(createdBarbershop, HttpStatus.CREATED);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -66,21 +102,21 @@ public class BarbershopController {
     @PostMapping("/barbershops/my-shop/activities")
     @ApiResponse(responseCode = "201")
     public ResponseEntity<ActivityDTO> createActivities(
-            Principal principal, // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @RequestBody @Valid final CreateActivityDTO createActivityDTO) {
         // (Requer ROLE_OWNER)
-        final ActivityDTO createdService = barberService.createActivities(principal.getName(), createActivityDTO); // ALTERADO
+        final ActivityDTO createdService = barberService.createActivities(currentUser, createActivityDTO); // ALTERADO
         return new ResponseEntity<>(createdService, HttpStatus.CREATED);
     }
 
     // NOVO: Endpoint para editar um serviço
     @PutMapping("/barbershops/my-shop/activities/{activityId}")
     public ResponseEntity<ActivityDTO> updateActivity(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @PathVariable final UUID activityId,
             @RequestBody @Valid final UpdateActivityDTO updateActivityDTO) {
         // (Requer ROLE_OWNER)
-        final ActivityDTO updatedActivity = barberService.updateActivity(principal.getName(), activityId, updateActivityDTO);
+        final ActivityDTO updatedActivity = barberService.updateActivity(currentUser, activityId, updateActivityDTO);
         return ResponseEntity.ok(updatedActivity);
     }
 
@@ -88,29 +124,29 @@ public class BarbershopController {
     @DeleteMapping("/barbershops/my-shop/activities/{activityId}")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> deleteActivity(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @PathVariable final UUID activityId) {
         // (Requer ROLE_OWNER)
-        barberService.deleteActivity(principal.getName(), activityId);
+        barberService.deleteActivity(currentUser, activityId);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/barbershops/my-shop")
     public ResponseEntity<BarbershopDTO> updateBarbershop(
-            Principal principal, // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @RequestBody @Valid final UpdateBarbershopDTO updateBarbershopDTO) {
         // (Requer ROLE_OWNER)
-        final BarbershopDTO updatedBarbershop = barberService.updateBarbershop(principal.getName(), updateBarbershopDTO); // ALTERADO
+        final BarbershopDTO updatedBarbershop = barberService.updateBarbershop(currentUser, updateBarbershopDTO); // ALTERADO
         return ResponseEntity.ok(updatedBarbershop);
     }
 
     @DeleteMapping("/barbershops/my-shop/remove-barber/{barberId}")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> removeBarber(
-            Principal principal, // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @PathVariable(name = "barberId") final UUID barberId) {
         // (Requer ROLE_OWNER)
-        barberService.removeBarber(principal.getName(), barberId); // ALTERADO
+        barberService.removeBarber(currentUser, barberId); // ALTERADO
         return ResponseEntity.noContent().build();
     }
 
@@ -118,10 +154,10 @@ public class BarbershopController {
     @DeleteMapping("/barbershops/my-shop/close")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> closeBarbershop(
-            Principal principal,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @RequestBody @Valid final CloseBarbershopRequestDTO closeBarbershopRequestDTO) {
         // (Requer ROLE_OWNER)
-        barberService.closeBarbershop(principal.getName(), closeBarbershopRequestDTO);
+        barberService.closeBarbershop(currentUser, closeBarbershopRequestDTO);
         return ResponseEntity.noContent().build();
     }
 
@@ -130,26 +166,26 @@ public class BarbershopController {
     @PostMapping("/barbershops/join-request")
     @ApiResponse(responseCode = "202")
     public ResponseEntity<Void> requestToJoinBarbershop(
-            Principal principal, // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @RequestBody @Valid final BarberJoinRequestDTO joinRequestDTO) {
         // (Requer ROLE_BARBER)
-        barberService.requestToJoinBarbershop(principal.getName(), joinRequestDTO.getCnpj()); // ALTERADO
+        barberService.requestToJoinBarbershop(currentUser, joinRequestDTO.getCnpj()); // ALTERADO
         return ResponseEntity.accepted().build();
     }
 
     @GetMapping("/barbershops/my-shop/pending-requests")
-    public ResponseEntity<List<JoinRequestDTO>> getPendingRequests(Principal principal) { // ALTERADO
+    public ResponseEntity<List<JoinRequestDTO>> getPendingRequests(@AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_OWNER)
-        return ResponseEntity.ok(barberService.getPendingJoinRequests(principal.getName())); // ALTERADO
+        return ResponseEntity.ok(barberService.getPendingJoinRequests(currentUser)); // ALTERADO
     }
 
     @PostMapping("/barbershops/my-shop/approve-request/{requestId}")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> approveJoinRequest(
-            Principal principal, // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @PathVariable(name = "requestId") final Long requestId) {
         // (Requer ROLE_OWNER)
-        barberService.approveJoinRequest(principal.getName(), requestId); // ALTERADO
+        barberService.approveJoinRequest(currentUser, requestId); // ALTERADO
         return ResponseEntity.noContent().build();
     }
 
@@ -158,73 +194,74 @@ public class BarbershopController {
     @PostMapping("/barbershops/leave-shop")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> freeBarber(
-            Principal principal) { // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser) { // ALTERADO
         // (Requer ROLE_BARBER)
-        barberService.freeBarber(principal.getName()); // ALTERADO
+        barberService.freeBarber(currentUser); // ALTERADO
         return ResponseEntity.noContent().build();
     }
 
     // --- Fluxo 4: Gestao de imagens ---
     @PostMapping("/barbershops/my-shop/upload-logo")
-    public ResponseEntity<String> uploadBarbershopLogo(
-            Principal principal, // ALTERADO
+    public ResponseEntity<MediaJobDTO> uploadBarbershopLogo(
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @RequestParam("file") MultipartFile file) {
         // (Requer ROLE_OWNER)
         try {
-            String imageUrl = barberService.updateBarbershopLogo(principal.getName(), file); // ALTERADO
-            return ResponseEntity.ok(imageUrl);
+            MediaJobDTO job = barberService.updateBarbershopLogo(currentUser, file); // ALTERADO
+            // 202: o upload segue em segundo plano; o andamento é consultado em /api/media-jobs/{jobId}
+            return ResponseEntity.accepted().location(URI.create("/api/media-jobs/" + job.getJobId())).body(job);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Falha no upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @PostMapping("/barbershops/my-shop/upload-banner")
-    public ResponseEntity<String> uploadBarbershopBanner(
-            Principal principal, // ALTERADO
+    public ResponseEntity<MediaJobDTO> uploadBarbershopBanner(
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @RequestParam("file") MultipartFile file) {
         // (Requer ROLE_OWNER)
         try {
-            String imageUrl = barberService.updateBarbershopBanner(principal.getName(), file); // ALTERADO
-            return ResponseEntity.ok(imageUrl);
+            MediaJobDTO job = barberService.updateBarbershopBanner(currentUser, file); // ALTERADO
+            return ResponseEntity.accepted().location(URI.create("/api/media-jobs/" + job.getJobId())).body(job);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Falha no upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @PostMapping("/barbershops/my-shop/activities/{activityId}/upload-photo")
-    public ResponseEntity<String> uploadActivityPhoto(
-            Principal principal, // ALTERADO
+    public ResponseEntity<MediaJobDTO> uploadActivityPhoto(
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @PathVariable(name = "activityId") final UUID activityId,
             @RequestParam("file") MultipartFile file) {
         // (Requer ROLE_OWNER)
         try {
-            String imageUrl = barberService.updateActivityPhoto(principal.getName(), activityId, file); // ALTERADO
-            return ResponseEntity.ok(imageUrl);
+            MediaJobDTO job = barberService.updateActivityPhoto(currentUser, activityId, file); // ALTERADO
+            return ResponseEntity.accepted().location(URI.create("/api/media-jobs/" + job.getJobId())).body(job);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Falha no upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @PostMapping("/barbershops/my-shop/highlights")
-    public ResponseEntity<String> addBarbershopHighlight(
-            Principal principal, // ALTERADO
+    public ResponseEntity<MediaJobDTO> addBarbershopHighlight(
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @RequestParam("file") MultipartFile file) {
         // (Requer ROLE_OWNER)
         try {
-            String imageUrl = barberService.addBarbershopHighlight(principal.getName(), file); // ALTERADO
-            return ResponseEntity.status(HttpStatus.CREATED).body(imageUrl);
+            MediaJobDTO job = barberService.addBarbershopHighlight(currentUser, file); // ALTERADO
+            return ResponseEntity.accepted().location(URI.create("/api/media-jobs/" + job.getJobId())).body(job);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Falha no upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @DeleteMapping("/barbershops/my-shop/highlights/{highlightId}")
     @ApiResponse(responseCode = "204")
     public ResponseEntity<Void> deleteBarbershopHighlight(
-            Principal principal, // ALTERADO
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // ALTERADO
             @PathVariable(name = "highlightId") final UUID highlightId) {
         // (Requer ROLE_OWNER)
-        barberService.deleteBarbershopHighlight(principal.getName(), highlightId); // ALTERADO
+        barberService.deleteBarbershopHighlight(currentUser, highlightId); // ALTERADO
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.cache.CatalogCache;
+import ifsp.edu.projeto.cortaai.cache.SecondLevelCacheStats;
+import ifsp.edu.projeto.cortaai.dto.CacheStatsDTO;
+import ifsp.edu.projeto.cortaai.service.availability.AvailabilityCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache-stats")
+public class CacheStatsController {
+
+    private final AvailabilityCache availabilityCache;
+    private final CatalogCache catalogCache;
+    private final SecondLevelCacheStats secondLevelCacheStats;
+
+    public CacheStatsController(final AvailabilityCache availabilityCache, final CatalogCache catalogCache,
+                                final SecondLevelCacheStats secondLevelCacheStats) {
+        this.availabilityCache = availabilityCache;
+        this.catalogCache = catalogCache;
+        this.secondLevelCacheStats = secondLevelCacheStats;
+    }
+
+    // Contadores de todos os caches (disponibilidade, catálogo, segundo nível do Hibernate), para acompanhar a taxa de acerto
+    @GetMapping
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        // (Requer ROLE_OPERATOR)
+        List<CacheStatsDTO> stats = new ArrayList<>(availabilityCache.stats());
+        stats.addAll(catalogCache.stats());
+        stats.addAll(secondLevelCacheStats.stats());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,33 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Apoio aos GETs condicionais dos endpoints de catálogo e perfil.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Compara a versão com If-None-Match / If-Modified-Since e já grava ETag e Last-Modified na resposta.
+     * Retorna true quando o cliente já tem a versão atual (a resposta vira 304, sem corpo).
+     * Conjuntos vazios seguem o caminho normal, que também trata o 404 de ids inexistentes.
+     */
+    static boolean notModified(final WebRequest request, final DataVersion version) {
+        if (version.isEmpty()) {
+            return false;
+        }
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    /**
+     * Mesma comparação, só com If-None-Match, para ETags que não vêm do banco (versões do CatalogCache).
+     * O ETag precisa ter sido lido antes do corpo, e o corpo já carregado: ids inexistentes dão 404 antes.
+     */
+    static boolean notModified(final WebRequest request, final String etag) {
+        return request.checkNotModified(etag);
+    }
+}
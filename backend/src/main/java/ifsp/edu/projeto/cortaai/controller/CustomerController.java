@@ -2,19 +2,27 @@ package ifsp.edu.projeto.cortaai.controller;
 
 import ifsp.edu.projeto.cortaai.dto.CustomerDTO;
 import ifsp.edu.projeto.cortaai.dto.LoginResponseDTO;
+import ifsp.edu.projeto.cortaai.dto.MediaJobDTO;
+import ifsp.edu.projeto.cortaai.dto.RefreshTokenRequestDTO;
 import ifsp.edu.projeto.cortaai.service.CustomerService;
 import ifsp.edu.projeto.cortaai.dto.CustomerCreateDTO;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 
 import java.io.IOException;
-import java.security.Principal;
+import java.net.URI;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import ifsp.edu.projeto.cortaai.security.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ifsp.edu.projeto.cortaai.dto.LoginDTO;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,18 +31,27 @@ import org.springframework.web.multipart.MultipartFile;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public CustomerController(final CustomerService customerService) {
+    public CustomerController(final CustomerService customerService, final LoginRateLimiter loginRateLimiter) {
         this.customerService = customerService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
+    public ResponseEntity<List<CustomerDTO>> getAllCustomers(final WebRequest request) {
+        // 304 quando o cliente já tem a versão atual (If-None-Match / If-Modified-Since)
+        if (ConditionalRequests.notModified(request, customerService.getCustomersVersion())) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.findAll());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDTO> getCustomer(@PathVariable(name = "id") final UUID id) {
+    public ResponseEntity<CustomerDTO> getCustomer(@PathVariable(name = "id") final UUID id, final WebRequest request) {
+        if (ConditionalRequests.notModified(request, customerService.getCustomerVersion(id))) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.get(id));
     }
 
@@ -53,39 +70,62 @@ public class CustomerController {
 
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid final LoginDTO loginDTO) { // TIPO DE RETORNO ALTERADO
+    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid final LoginDTO loginDTO,
+                                                  final HttpServletRequest httpRequest) { // TIPO DE RETORNO ALTERADO
+        // Rejeita rajadas antes de buscar o usuário e rodar o BCrypt
+        final long retryAfterSeconds = loginRateLimiter.tryAcquire(loginDTO.getEmail(), httpRequest.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
         final LoginResponseDTO loginResponse = customerService.login(loginDTO); // TIPO DE RETORNO ALTERADO
+        loginRateLimiter.onSuccess(loginDTO.getEmail());
         return ResponseEntity.ok(loginResponse);
     }
 
+    // Troca o refresh token (de uso único) por um novo par de tokens
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody @Valid final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return ResponseEntity.ok(customerService.refresh(refreshTokenRequestDTO));
+    }
+
+    // Encerra a sessão: revoga o token de acesso atual e, se enviado, o refresh token
+    @PostMapping("/me/logout")
+    public ResponseEntity<Void> logout(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestBody(required = false) @Valid final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        customerService.logout(currentUser, refreshTokenRequestDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/me") // ROTA ALTERADA
     public ResponseEntity<Void> updateCustomer(
-            Principal principal, // Usuário autenticado injetado
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // Usuário autenticado injetado
             @RequestBody @Valid final CustomerDTO customerDTO) {
 
-        // Passa o e-mail (principal.getName()) para o serviço
-        customerService.update(principal.getName(), customerDTO);
+        customerService.update(currentUser, customerDTO);
         return ResponseEntity.ok().build(); // Retorna 200 OK
     }
 
     @DeleteMapping("/me") // ROTA ALTERADA
     @ApiResponse(responseCode = "204")
-    public ResponseEntity<Void> deleteCustomer(Principal principal) { // Usuário autenticado injetado
-        customerService.delete(principal.getName()); // Passa o e-mail
+    public ResponseEntity<Void> deleteCustomer(@AuthenticationPrincipal AuthenticatedUser currentUser) { // Usuário autenticado injetado
+        customerService.delete(currentUser);
         return ResponseEntity.noContent().build();
     }
 
     // --- NOVO ENDPOINT DE UPLOAD ---
     @PostMapping("/me/upload-photo") // ROTA ALTERADA
-    public ResponseEntity<String> uploadCustomerPhoto(
-            Principal principal, // Usuário autenticado injetado
+    public ResponseEntity<MediaJobDTO> uploadCustomerPhoto(
+            @AuthenticationPrincipal AuthenticatedUser currentUser, // Usuário autenticado injetado
             @RequestParam("file") MultipartFile file) {
         try {
-            // Passa o e-mail para o serviço
-            String imageUrl = customerService.updateProfilePhoto(principal.getName(), file);
-            return ResponseEntity.ok(imageUrl);
+            MediaJobDTO job = customerService.updateProfilePhoto(currentUser, file);
+            // 202: o upload segue em segundo plano; o andamento é consultado em /api/media-jobs/{jobId}
+            return ResponseEntity.accepted().location(URI.create("/api/media-jobs/" + job.getJobId())).body(job);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Falha no upload: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
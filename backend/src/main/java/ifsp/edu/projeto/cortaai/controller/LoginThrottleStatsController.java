@@ -0,0 +1,26 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.dto.LoginThrottleStatsDTO;
+import ifsp.edu.projeto.cortaai.security.LoginRateLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/login-throttle-stats")
+public class LoginThrottleStatsController {
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    public LoginThrottleStatsController(final LoginRateLimiter loginRateLimiter) {
+        this.loginRateLimiter = loginRateLimiter;
+    }
+
+    // Contadores do limitador de login (tentativas aceitas, rejeitadas por IP/e-mail e chaves em memória)
+    @GetMapping
+    public ResponseEntity<LoginThrottleStatsDTO> getLoginThrottleStats() {
+        // (Requer ROLE_OPERATOR)
+        return ResponseEntity.ok(loginRateLimiter.stats());
+    }
+}
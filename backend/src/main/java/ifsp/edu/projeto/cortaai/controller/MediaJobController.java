@@ -0,0 +1,34 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.dto.MediaJobDTO;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import ifsp.edu.projeto.cortaai.service.MediaJobService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping(value = "/api/media-jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+public class MediaJobController {
+
+    private final MediaJobService mediaJobService;
+
+    public MediaJobController(final MediaJobService mediaJobService) {
+        this.mediaJobService = mediaJobService;
+    }
+
+    // Andamento de um upload de imagem (PENDING, PROCESSING, DONE com a URL, FAILED ou CANCELLED)
+    @GetMapping("/{jobId}")
+    public ResponseEntity<MediaJobDTO> getMediaJob(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @PathVariable(name = "jobId") final UUID jobId) {
+        // (Requer usuário autenticado; só quem pediu o upload enxerga o job)
+        return ResponseEntity.ok(mediaJobService.get(currentUser, jobId));
+    }
+}
@@ -0,0 +1,26 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.dto.PasswordHashingStatsDTO;
+import ifsp.edu.projeto.cortaai.security.BoundedPasswordEncoder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/password-hashing-stats")
+public class PasswordHashingStatsController {
+
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    public PasswordHashingStatsController(final BoundedPasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    // Ocupação do pool de hashing de senhas (fila, rejeições por fila cheia e timeouts)
+    @GetMapping
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        // (Requer usuário autenticado)
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+}
@@ -0,0 +1,48 @@
+package ifsp.edu.projeto.cortaai.controller;
+
+import ifsp.edu.projeto.cortaai.dto.SlotHoldDTO;
+import ifsp.edu.projeto.cortaai.dto.SlotHoldRequestDTO;
+import ifsp.edu.projeto.cortaai.service.SlotHoldService;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.Valid;
+
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(value = "/api/barbers/{id}/holds", produces = MediaType.APPLICATION_JSON_VALUE)
+public class SlotHoldController {
+
+    private final SlotHoldService slotHoldService;
+
+    public SlotHoldController(final SlotHoldService slotHoldService) {
+        this.slotHoldService = slotHoldService;
+    }
+
+    // Reserva o horário por alguns minutos enquanto o cliente confirma o agendamento
+    @PostMapping
+    @ApiResponse(responseCode = "201")
+    public ResponseEntity<SlotHoldDTO> createHold(
+            @PathVariable(name = "id") final UUID id,
+            @RequestBody @Valid final SlotHoldRequestDTO request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        // (Requer ROLE_CUSTOMER)
+        return new ResponseEntity<>(slotHoldService.create(id, request, currentUser), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{holdId}")
+    @ApiResponse(responseCode = "204")
+    public ResponseEntity<Void> releaseHold(
+            @PathVariable(name = "id") final UUID id,
+            @PathVariable(name = "holdId") final UUID holdId,
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        slotHoldService.release(id, holdId, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,32 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import ifsp.edu.projeto.cortaai.model.enums.AppointmentStatus;
+import java.time.OffsetDateTime;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filtros da listagem paginada de agendamentos (parâmetros de query).
+ * As páginas seguintes devem repetir os mesmos filtros, trocando apenas o cursor.
+ */
+@Getter
+@Setter
+public class AppointmentFeedQueryDTO {
+
+    // Início do agendamento >= from (opcional)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime from;
+
+    // Início do agendamento < to (opcional)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime to;
+
+    private AppointmentStatus status;
+
+    // Valor de nextCursor da página anterior (ausente na primeira página)
+    private String cursor;
+
+    private Integer limit;
+
+}
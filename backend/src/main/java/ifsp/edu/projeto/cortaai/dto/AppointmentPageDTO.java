@@ -0,0 +1,15 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AppointmentPageDTO {
+    private List<AppointmentsDTO> items;
+    private String nextCursor; // null quando não há mais páginas
+}
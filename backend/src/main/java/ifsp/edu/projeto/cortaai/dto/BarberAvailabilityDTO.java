@@ -0,0 +1,19 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BarberAvailabilityDTO {
+    private UUID barberId;
+    private String barberName;
+    private String imageUrl;
+    private List<LocalTime> availableSlots;
+}
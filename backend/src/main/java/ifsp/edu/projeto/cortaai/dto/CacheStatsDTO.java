@@ -0,0 +1,18 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+}
@@ -0,0 +1,17 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class DaySlotsDTO {
+    private LocalDate date;
+    private List<LocalTime> availableSlots;
+}
@@ -7,5 +7,6 @@ import lombok.Data;
 @Builder
 public class LoginResponseDTO {
     private String token;
+    private String refreshToken; // Troca por um novo token em /refresh quando o token (curto) expirar
     private Object userData; // Usamos Object para poder retornar BarberDTO ou CustomerDTO
 }
\ No newline at end of file
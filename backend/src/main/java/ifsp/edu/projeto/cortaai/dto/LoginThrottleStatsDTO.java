@@ -0,0 +1,19 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class LoginThrottleStatsDTO {
+    private boolean enabled;
+    private long allowed;
+    private long rejectedByIp;
+    private long rejectedByEmail;
+    private long trackedIps;
+    private long trackedEmails;
+    private long maxEntries;
+    private long evictions;
+}
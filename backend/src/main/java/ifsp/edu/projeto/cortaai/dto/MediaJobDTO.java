@@ -0,0 +1,22 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class MediaJobDTO {
+    private UUID jobId;
+    private MediaTarget target;
+    private UUID targetId;
+    private MediaJobStatus status;
+    private int attempts;
+    private String imageUrl; // Preenchido quando o status é DONE
+    private String error; // Último erro, quando houver
+}
@@ -0,0 +1,19 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class NextSlotDTO {
+    private UUID barberId;
+    private String barberName;
+    private UUID barbershopId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+}
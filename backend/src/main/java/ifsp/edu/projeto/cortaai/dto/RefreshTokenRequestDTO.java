@@ -0,0 +1,15 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshTokenRequestDTO {
+
+    @NotBlank
+    @Size(max = 100)
+    private String refreshToken;
+}
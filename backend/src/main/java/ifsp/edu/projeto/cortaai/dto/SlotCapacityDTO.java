@@ -0,0 +1,15 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SlotCapacityDTO {
+    private LocalTime startTime;
+    private int maxFreeMinutes; // Minutos livres contíguos a partir deste horário
+}
@@ -0,0 +1,20 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SlotHoldDTO {
+    private UUID holdId;
+    private UUID barberId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+    private Instant expiresAt; // Após este instante o horário volta a ficar livre
+}
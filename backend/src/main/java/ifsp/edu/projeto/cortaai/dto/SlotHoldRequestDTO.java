@@ -0,0 +1,23 @@
+package ifsp.edu.projeto.cortaai.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SlotHoldRequestDTO {
+
+    @NotNull
+    @Future
+    private OffsetDateTime startTime;
+
+    @NotEmpty
+    private List<UUID> activityIds;
+
+}
@@ -0,0 +1,21 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando um intervalo passa a ser ocupado na agenda de um barbeiro
+ * (novo agendamento ou novo horário de uma remarcação).
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentBooked {
+
+    private UUID barberId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+
+}
@@ -0,0 +1,21 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando um intervalo deixa de ocupar a agenda de um barbeiro
+ * (cancelamento, exclusão ou horário antigo de uma remarcação).
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentReleased {
+
+    private UUID barberId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+
+}
@@ -0,0 +1,17 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando o expediente de um barbeiro é alterado (afeta a disponibilidade de todos os dias).
+ */
+@Getter
+@AllArgsConstructor
+public class BarberWorkHoursChanged {
+
+    private UUID barberId;
+
+}
@@ -0,0 +1,18 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando muda algo exibido nas listagens públicas de uma barbearia
+ * (dados da loja, imagens, serviços ou barbeiros).
+ */
+@Getter
+@AllArgsConstructor
+public class BarbershopCatalogChanged {
+
+    private UUID barbershopId;
+
+}
@@ -0,0 +1,17 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando um job de mídia é registrado, para acordar os workers sem esperar o próximo ciclo.
+ */
+@Getter
+@AllArgsConstructor
+public class MediaJobQueued {
+
+    private UUID jobId;
+
+}
@@ -0,0 +1,22 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando um agendamento do cliente ocupa o intervalo que ele havia reservado temporariamente.
+ * A reserva só é consumida depois do commit: se o agendamento sofrer rollback, ela continua valendo.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotHoldClaimed {
+
+    private UUID barberId;
+    private UUID customerId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+
+}
@@ -0,0 +1,18 @@
+package ifsp.edu.projeto.cortaai.events;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Publicado quando as claims dos tokens já emitidos para um usuário deixam de valer
+ * (entrada/saída de barbearia, mudança de dono ou exclusão da conta).
+ */
+@Getter
+@AllArgsConstructor
+public class UserTokensRevoked {
+
+    private UUID userId;
+
+}
@@ -0,0 +1,21 @@
+package ifsp.edu.projeto.cortaai.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+
+/**
+ * Parâmetros da requisição inválidos (ex: lista de serviços vazia na consulta de disponibilidade).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException() {
+        super();
+    }
+
+    public BadRequestException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,21 @@
+package ifsp.edu.projeto.cortaai.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+
+/**
+ * Recurso interno saturado (ex: fila de hashing de senhas cheia). O cliente pode tentar novamente depois.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException() {
+        super();
+    }
+
+    public ServiceUnavailableException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,64 @@
+package ifsp.edu.projeto.cortaai.listener;
+
+import ifsp.edu.projeto.cortaai.events.AppointmentBooked;
+import ifsp.edu.projeto.cortaai.events.AppointmentReleased;
+import ifsp.edu.projeto.cortaai.events.BarberWorkHoursChanged;
+import ifsp.edu.projeto.cortaai.events.SlotHoldClaimed;
+import ifsp.edu.projeto.cortaai.service.availability.AvailabilityCache;
+import ifsp.edu.projeto.cortaai.service.availability.SlotHoldRegistry;
+import ifsp.edu.projeto.cortaai.service.availability.SlotOccupancyIndex;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Mantém o SlotOccupancyIndex e o AvailabilityCache sincronizados com as agendas.
+ * Só reage depois do commit, para que nada reflita uma transação que sofreu rollback.
+ *
+ * A ordem importa: o índice é atualizado ANTES de o cache mudar de versão, senão uma leitura
+ * poderia calcular sobre o índice antigo e guardar o resultado já com a versão nova.
+ */
+@Component
+public class AvailabilityChangeListener {
+
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final AvailabilityCache availabilityCache;
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    public AvailabilityChangeListener(final SlotOccupancyIndex slotOccupancyIndex,
+                                      final AvailabilityCache availabilityCache,
+                                      final SlotHoldRegistry slotHoldRegistry) {
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.availabilityCache = availabilityCache;
+        this.slotHoldRegistry = slotHoldRegistry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final AppointmentBooked event) {
+        slotOccupancyIndex.occupy(event.getBarberId(), event.getStartTime(), event.getEndTime());
+        availabilityCache.invalidateDay(event.getBarberId(), localDate(event.getStartTime()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final AppointmentReleased event) {
+        slotOccupancyIndex.release(event.getBarberId(), event.getStartTime());
+        availabilityCache.invalidateDay(event.getBarberId(), localDate(event.getStartTime()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final SlotHoldClaimed event) {
+        slotHoldRegistry.claim(event.getBarberId(), event.getCustomerId(), event.getStartTime(), event.getEndTime());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final BarberWorkHoursChanged event) {
+        availabilityCache.invalidateBarber(event.getBarberId());
+    }
+
+    private static LocalDate localDate(OffsetDateTime dateTime) {
+        return dateTime.atZoneSameInstant(SlotOccupancyIndex.ZONE_ID).toLocalDate();
+    }
+}
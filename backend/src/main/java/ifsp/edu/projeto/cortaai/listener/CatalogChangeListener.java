@@ -0,0 +1,25 @@
+package ifsp.edu.projeto.cortaai.listener;
+
+import ifsp.edu.projeto.cortaai.cache.CatalogCache;
+import ifsp.edu.projeto.cortaai.events.BarbershopCatalogChanged;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida o CatalogCache depois do commit das alterações no catálogo de uma barbearia.
+ */
+@Component
+public class CatalogChangeListener {
+
+    private final CatalogCache catalogCache;
+
+    public CatalogChangeListener(final CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final BarbershopCatalogChanged event) {
+        catalogCache.invalidateShop(event.getBarbershopId());
+    }
+}
@@ -0,0 +1,25 @@
+package ifsp.edu.projeto.cortaai.listener;
+
+import ifsp.edu.projeto.cortaai.events.MediaJobQueued;
+import ifsp.edu.projeto.cortaai.service.media.MediaJobWorker;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Acorda os workers de mídia depois do commit (antes disso, o job ainda não é visível para eles).
+ */
+@Component
+public class MediaJobListener {
+
+    private final MediaJobWorker mediaJobWorker;
+
+    public MediaJobListener(final MediaJobWorker mediaJobWorker) {
+        this.mediaJobWorker = mediaJobWorker;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final MediaJobQueued event) {
+        mediaJobWorker.wakeUp();
+    }
+}
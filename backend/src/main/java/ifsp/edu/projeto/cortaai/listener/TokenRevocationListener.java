@@ -0,0 +1,26 @@
+package ifsp.edu.projeto.cortaai.listener;
+
+import ifsp.edu.projeto.cortaai.events.UserTokensRevoked;
+import ifsp.edu.projeto.cortaai.security.TokenRevocationList;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Revoga os access tokens do usuário depois do commit. Se fosse antes, o cliente poderia renovar o
+ * token ainda enxergando o estado antigo no banco e receber as mesmas claims desatualizadas.
+ */
+@Component
+public class TokenRevocationListener {
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public TokenRevocationListener(final TokenRevocationList tokenRevocationList) {
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(final UserTokensRevoked event) {
+        tokenRevocationList.revokeUser(event.getUserId());
+    }
+}
@@ -3,6 +3,7 @@ package ifsp.edu.projeto.cortaai.mapper;
 import ifsp.edu.projeto.cortaai.dto.CreateActivityDTO;
 import ifsp.edu.projeto.cortaai.dto.ActivityDTO;
 import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.repository.projection.ActivitySummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -12,6 +13,8 @@ public interface ActivityMapper {
     @Mapping(source = "barbershop.id", target = "barbershopId")
     ActivityDTO toDTO(Activity service);
 
+    ActivityDTO toDTO(ActivitySummary summary);
+
     // Mapeia do DTO de *criação* para a entidade
     // Ignora a imagem (tratada pelo serviço) e a barbearia (definida pelo serviço)
     @Mapping(target = "id", ignore = true)
@@ -2,6 +2,7 @@ package ifsp.edu.projeto.cortaai.mapper;
 
 import ifsp.edu.projeto.cortaai.dto.BarberDTO;
 import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.repository.projection.BarberSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -12,6 +13,9 @@ public interface BarberMapper {
     @Mapping(source = "barbershop.id", target = "barbershopId")
     BarberDTO toDTO(Barber barber);
 
+    // Leitura por projeção (listagens): os campos têm os mesmos nomes do DTO
+    BarberDTO toDTO(BarberSummary summary);
+
     // Ignora o mapeamento de volta do ID (é tratado pelo serviço)
     @Mapping(target = "barbershop", ignore = true)
     Barber toEntity(BarberDTO barberDTO);
@@ -4,6 +4,7 @@ import ifsp.edu.projeto.cortaai.dto.BarbershopDTO;
 import ifsp.edu.projeto.cortaai.dto.CreateBarbershopDTO;
 import ifsp.edu.projeto.cortaai.model.Barbershop;
 import ifsp.edu.projeto.cortaai.model.BarbershopHighlight;
+import ifsp.edu.projeto.cortaai.repository.projection.BarbershopSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -18,6 +19,10 @@ public interface BarbershopMapper {
     @Mapping(source = "highlights", target = "highlightUrls")
     BarbershopDTO toDTO(Barbershop barbershop);
 
+    // Leitura por projeção: os destaques são buscados à parte e informados aqui
+    @Mapping(source = "highlightUrls", target = "highlightUrls")
+    BarbershopDTO toDTO(BarbershopSummary summary, List<String> highlightUrls);
+
     // Mapeia do DTO de criação para a entidade
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "logoUrl", ignore = true)
@@ -2,6 +2,7 @@ package ifsp.edu.projeto.cortaai.mapper;
 
 import ifsp.edu.projeto.cortaai.dto.CustomerDTO;
 import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.repository.projection.CustomerSummary;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring") // Define que é um mapper e o Spring deve gerenciá-lo
@@ -9,5 +10,7 @@ public interface CustomerMapper {
 
     CustomerDTO toDTO(Customer customer);
 
+    CustomerDTO toDTO(CustomerSummary summary);
+
     Customer toEntity(CustomerDTO customerDTO);
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package ifsp.edu.projeto.cortaai.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -15,6 +17,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "activities")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Cache de segundo nível (dado de referência, quase estático)
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -12,7 +12,16 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Suportam a verificação de conflitos de horário (ver AppointmentsRepository.findBookingConflicts)
+        @Index(name = "idx_appointments_barber_time", columnList = "barber_id, start_time, end_time"),
+        @Index(name = "idx_appointments_customer_time", columnList = "customer_id, start_time, end_time"),
+        // Suportam as listagens paginadas (ORDER BY start_time, id): nos índices acima o end_time fica entre
+        // o start_time e o id implícito, e o MySQL precisaria ordenar (filesort) todas as linhas do intervalo
+        @Index(name = "idx_appointments_barber_start", columnList = "barber_id, start_time"),
+        @Index(name = "idx_appointments_customer_start", columnList = "customer_id, start_time"),
+        @Index(name = "idx_appointments_barbershop_time", columnList = "barbershop_id, start_time")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -0,0 +1,83 @@
+package ifsp.edu.projeto.cortaai.model;
+
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobType;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Tarefa de mídia processada em segundo plano (upload de imagem ou exclusão de imagem antiga).
+ * O arquivo de um upload fica em MediaJobPayload até o job terminar.
+ */
+@Entity
+@Table(name = "media_jobs", indexes = {
+        @Index(name = "idx_media_jobs_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_media_jobs_target", columnList = "target, target_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+public class MediaJob {
+
+    @Id
+    @Column(nullable = false, updatable = false, length = 36)
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MediaJobType type;
+
+    // Apenas para UPLOAD
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private MediaTarget target;
+
+    // Id da entidade dona da imagem (Customer, Barber, Activity ou Barbershop)
+    @Column(name = "target_id", length = 36)
+    private UUID targetId;
+
+    // DELETE: imagem a remover. UPLOAD: imagem já enviada (evita reenviar em uma nova tentativa)
+    @Column(name = "public_id", length = 255)
+    private String publicId;
+
+    @Column(name = "result_url", length = 255)
+    private String resultUrl;
+
+    // Usuário que pediu o upload (só ele consulta o job)
+    @Column(name = "requested_by", length = 36)
+    private UUID requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MediaJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // PENDING: quando pode ser executado. PROCESSING: fim da reserva do worker (depois disso, outro worker pode retomar)
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreatedDate
+    @Column(name = "date_created", nullable = false, updatable = false)
+    private OffsetDateTime dateCreated;
+
+    @LastModifiedDate
+    @Column(name = "last_updated", nullable = false)
+    private OffsetDateTime lastUpdated;
+
+}
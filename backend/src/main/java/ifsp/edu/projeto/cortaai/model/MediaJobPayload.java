@@ -0,0 +1,32 @@
+package ifsp.edu.projeto.cortaai.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.Blob;
+import java.util.UUID;
+
+/**
+ * Arquivo de um MediaJob de upload. Fica em uma tabela própria para que as consultas da fila
+ * não carreguem o conteúdo; é gravado e lido em streaming e removido quando o job termina.
+ */
+@Entity
+@Table(name = "media_job_payloads")
+@Getter
+@Setter
+public class MediaJobPayload {
+
+    // Mesmo id do MediaJob
+    @Id
+    @Column(nullable = false, updatable = false, length = 36)
+    private UUID id;
+
+    @Lob
+    @Column(nullable = false, length = 100 * 1024 * 1024)
+    private Blob content;
+
+    @Column(name = "content_length", nullable = false)
+    private long contentLength;
+
+}
@@ -0,0 +1,49 @@
+package ifsp.edu.projeto.cortaai.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+public class RefreshToken {
+
+    @Id
+    @Column(nullable = false, updatable = false, length = 36)
+    @GeneratedValue
+    @UuidGenerator
+    private UUID id;
+
+    // Só o hash SHA-256 é guardado; o token em si fica apenas com o cliente
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Id do Customer ou Barber, conforme userType
+    @Column(name = "user_id", nullable = false, length = 36)
+    private UUID userId;
+
+    @Column(name = "user_type", nullable = false, length = 20)
+    private String userType;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @CreatedDate
+    @Column(name = "date_created", nullable = false, updatable = false)
+    private OffsetDateTime dateCreated;
+
+}
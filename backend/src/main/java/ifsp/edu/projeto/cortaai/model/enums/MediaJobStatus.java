@@ -0,0 +1,9 @@
+package ifsp.edu.projeto.cortaai.model.enums;
+
+public enum MediaJobStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED,   // Tentativas esgotadas
+    CANCELLED // Substituído por um upload mais novo para a mesma imagem
+}
@@ -0,0 +1,6 @@
+package ifsp.edu.projeto.cortaai.model.enums;
+
+public enum MediaJobType {
+    UPLOAD, // Envia a imagem ao storage e grava a URL na entidade
+    DELETE  // Remove do storage uma imagem que deixou de ser usada
+}
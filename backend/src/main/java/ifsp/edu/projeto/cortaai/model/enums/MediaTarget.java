@@ -0,0 +1,24 @@
+package ifsp.edu.projeto.cortaai.model.enums;
+
+/**
+ * Imagem de destino de um upload, com a pasta correspondente no storage.
+ */
+public enum MediaTarget {
+
+    CUSTOMER_PHOTO("customer-profiles"),
+    BARBER_PHOTO("barber-profiles"),
+    ACTIVITY_PHOTO("activity-images"),
+    BARBERSHOP_LOGO("barbershop-logos"),
+    BARBERSHOP_BANNER("barbershop-banners"),
+    BARBERSHOP_HIGHLIGHT("barbershop-highlights"); // Cria um destaque novo (targetId = barbearia)
+
+    private final String folder;
+
+    MediaTarget(final String folder) {
+        this.folder = folder;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+}
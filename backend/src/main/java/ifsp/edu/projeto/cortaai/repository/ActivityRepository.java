@@ -1,9 +1,13 @@
 package ifsp.edu.projeto.cortaai.repository;
 
 import ifsp.edu.projeto.cortaai.model.Activity;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import ifsp.edu.projeto.cortaai.repository.projection.ActivitySummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ActivityRepository extends JpaRepository<Activity, UUID> {
 
@@ -13,4 +17,23 @@ public interface ActivityRepository extends JpaRepository<Activity, UUID> {
      Útil para o "Fluxo 4: Agendamento pelo Cliente".*/
     List<Activity> findByBarbershopId(UUID barbershopId);
 
+    /**
+     * Mesma busca, mas lendo só as colunas do ActivityDTO (sem carregar entidades).
+     */
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.ActivitySummary(a.id, a.activityName, a.price, a.durationMinutes, " +
+            "a.barbershop.id, a.imageUrl) FROM Activity a WHERE a.barbershop.id = ?1")
+    List<ActivitySummary> findSummariesByBarbershopId(UUID barbershopId);
+
+    /**
+     * Busca os serviços um a um pelo id, para que sejam atendidos pelo cache de segundo nível
+     * (o findAllById gera uma query com IN, que sempre vai ao banco). Ids repetidos são ignorados.
+     */
+    default List<Activity> findAllByIdCached(Collection<UUID> ids) {
+        return ids.stream()
+                .distinct()
+                .map(this::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
 }
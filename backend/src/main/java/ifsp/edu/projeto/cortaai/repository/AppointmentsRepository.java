@@ -3,12 +3,16 @@ package ifsp.edu.projeto.cortaai.repository;
 import ifsp.edu.projeto.cortaai.model.Appointments;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import ifsp.edu.projeto.cortaai.model.enums.AppointmentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 public interface AppointmentsRepository extends JpaRepository<Appointments, Long> {
@@ -20,33 +24,97 @@ public interface AppointmentsRepository extends JpaRepository<Appointments, Long
     /**
 
     Encontra todos os agendamentos de um cliente.
-    Útil para o histórico do cliente.*/
-    List<Appointments> findByCustomerId(UUID customerId);
+    Útil para o histórico do cliente.
+    Os serviços (activities) vêm na mesma query, pois o AppointmentMapper sempre os lê.*/
+    @EntityGraph(attributePaths = "activities")
+    List<Appointments> findWithActivitiesByCustomerId(UUID customerId);
 
     /**
 
     Encontra todos os agendamentos de um barbeiro.
     Útil para o histórico do barbeiro.*/
-    List<Appointments> findByBarberId(UUID barberId);
+    @EntityGraph(attributePaths = "activities")
+    List<Appointments> findWithActivitiesByBarberId(UUID barberId);
 
     /**
+     * Verifica, em uma única query e sem carregar entidades, se um novo intervalo conflita com a
+     * agenda do barbeiro e/ou com a do cliente. Há conflito quando os intervalos se sobrepõem:
+     * o novo começa durante um existente, termina durante um existente ou o "envolve".
+     * Cada EXISTS usa o índice composto correspondente (barber_id/customer_id, start_time, end_time).
+     *
+     * @param excludeId agendamento a ignorar (o próprio, na atualização); null na criação.
+     */
+    @Query(value = "SELECT " +
+            "CASE WHEN EXISTS(SELECT 1 FROM appointments a WHERE a.barber_id = :barberId " +
+            "AND a.start_time < :endTime AND a.end_time > :startTime AND a.status <> 'CANCELLED' " +
+            "AND (:excludeId IS NULL OR a.id <> :excludeId)) THEN 1 ELSE 0 END AS barberConflict, " +
+            "CASE WHEN EXISTS(SELECT 1 FROM appointments a WHERE a.customer_id = :customerId " +
+            "AND a.start_time < :endTime AND a.end_time > :startTime AND a.status <> 'CANCELLED' " +
+            "AND (:excludeId IS NULL OR a.id <> :excludeId)) THEN 1 ELSE 0 END AS customerConflict",
+            nativeQuery = true)
+    BookingConflicts findBookingConflicts(@Param("barberId") UUID barberId,
+                                          @Param("customerId") UUID customerId,
+                                          @Param("startTime") OffsetDateTime startTime,
+                                          @Param("endTime") OffsetDateTime endTime,
+                                          @Param("excludeId") Long excludeId);
 
-     Encontra agendamentos de um barbeiro que se sobrepõem a um determinado
-     intervalo de tempo.
-     Essencial para o "Fluxo 4: Cálculo de Disponibilidade".*
-     Esta query verifica conflitos:
-     O novo agendamento começa durante um existente.
-     O novo agendamento termina durante um existente.
-     O novo agendamento "envolve" um existente.
+    /**
+     * Resultado de findBookingConflicts (0/1; o CASE evita depender de como cada banco devolve o EXISTS).
      */
-    @Query("SELECT a FROM Appointments a WHERE a.barber.id = ?1 AND " +"(a.startTime < ?3 AND a.endTime > ?2) AND " +"a.status <> 'CANCELLED'")
-    List<Appointments> findConflictingAppointments(UUID barberId, OffsetDateTime newStartTime, OffsetDateTime newEndTime);
+    interface BookingConflicts {
+        Number getBarberConflict();
+
+        Number getCustomerConflict();
+
+        default boolean barberConflict() {
+            return getBarberConflict() != null && getBarberConflict().intValue() != 0;
+        }
+
+        default boolean customerConflict() {
+            return getCustomerConflict() != null && getCustomerConflict().intValue() != 0;
+        }
+    }
 
     /**
      * Encontra todos os agendamentos de uma barbearia.
      * Útil para a visualização do Dono (Owner).
      */
-    List<Appointments> findByBarbershopId(UUID barbershopId);
+    @EntityGraph(attributePaths = "activities")
+    List<Appointments> findWithActivitiesByBarbershopId(UUID barbershopId);
+
+    // --- Listagens paginadas por cursor (keyset) ---
+    // Cada página é buscada a partir da posição (startTime, id) do último item da página anterior,
+    // então o custo não depende de quão longe o cliente já rolou (índices (barber_id|customer_id|barbershop_id,
+    // start_time), que entregam as linhas já na ordem de start_time, id). As queries retornam só os ids;
+    // as entidades (com os serviços) são carregadas depois por findWithActivitiesByIdIn.
+
+    @Query("SELECT a.id FROM Appointments a WHERE a.barber.id = ?1 AND " +
+            "(a.startTime > ?2 OR (a.startTime = ?2 AND a.id > ?3)) AND a.startTime < ?4 AND " +
+            "(?5 IS NULL OR a.status = ?5) ORDER BY a.startTime, a.id")
+    List<Long> findPageIdsByBarberId(UUID barberId, OffsetDateTime afterStart, Long afterId,
+                                     OffsetDateTime before, AppointmentStatus status, Limit limit);
+
+    @Query("SELECT a.id FROM Appointments a WHERE a.barbershop.id = ?1 AND " +
+            "(a.startTime > ?2 OR (a.startTime = ?2 AND a.id > ?3)) AND a.startTime < ?4 AND " +
+            "(?5 IS NULL OR a.status = ?5) ORDER BY a.startTime, a.id")
+    List<Long> findPageIdsByBarbershopId(UUID barbershopId, OffsetDateTime afterStart, Long afterId,
+                                         OffsetDateTime before, AppointmentStatus status, Limit limit);
+
+    @Query("SELECT a.id FROM Appointments a WHERE a.customer.id = ?1 AND " +
+            "(a.startTime > ?2 OR (a.startTime = ?2 AND a.id > ?3)) AND a.startTime < ?4 AND " +
+            "(?5 IS NULL OR a.status = ?5) ORDER BY a.startTime, a.id")
+    List<Long> findPageIdsByCustomerId(UUID customerId, OffsetDateTime afterStart, Long afterId,
+                                       OffsetDateTime before, AppointmentStatus status, Limit limit);
+
+    @EntityGraph(attributePaths = "activities")
+    List<Appointments> findWithActivitiesByIdIn(Collection<Long> ids);
+
+    /**
+     * Todos os agendamentos, ordenados pelo id, já com os serviços carregados.
+     */
+    @EntityGraph(attributePaths = "activities")
+    @Query("SELECT a FROM Appointments a ORDER BY a.id")
+    List<Appointments> findAllWithActivities();
 
 
     /**
@@ -55,6 +123,24 @@ public interface AppointmentsRepository extends JpaRepository<Appointments, Long
      */
     List<Appointments> findByBarberIdAndStartTimeBetween(UUID barberId, OffsetDateTime startOfDay, OffsetDateTime endOfDay);
 
+    /**
+     * Busca, em uma única query, os agendamentos não cancelados de um barbeiro em um intervalo
+     * (ex: o mês inteiro), já ordenados pelo horário de início.
+     * Usado pelo índice de ocupação (SlotOccupancyIndex) para carregar um ou vários dias de uma vez.
+     */
+    @Query("SELECT a FROM Appointments a WHERE a.barber.id = ?1 AND " +
+            "a.startTime BETWEEN ?2 AND ?3 AND " +
+            "a.status <> 'CANCELLED' ORDER BY a.startTime")
+    List<Appointments> findActiveByBarberIdAndStartTimeBetween(UUID barberId, OffsetDateTime rangeStart, OffsetDateTime rangeEnd);
+
+    /**
+     * Mesma busca acima, mas para vários barbeiros de uma vez (ex: todos os barbeiros de uma barbearia).
+     */
+    @Query("SELECT a FROM Appointments a WHERE a.barber.id IN ?1 AND " +
+            "a.startTime BETWEEN ?2 AND ?3 AND " +
+            "a.status <> 'CANCELLED' ORDER BY a.startTime")
+    List<Appointments> findActiveByBarberIdInAndStartTimeBetween(Collection<UUID> barberIds, OffsetDateTime rangeStart, OffsetDateTime rangeEnd);
+
     /**
      * Verifica se existem agendamentos com status 'SCHEDULED' para uma barbearia.
      * @param barbershopId O ID da barbearia.
@@ -69,13 +155,4 @@ public interface AppointmentsRepository extends JpaRepository<Appointments, Long
      * @return true se existir, false caso contrário.
      */
     boolean existsByActivitiesIdAndStatus(UUID activityId, AppointmentStatus status);
-
-    /**
-     * Encontra agendamentos de um CLIENTE que se sobrepõem a um determinado intervalo de tempo.
-     * Usado para evitar que o cliente marque dois compromissos ao mesmo tempo.
-     */
-    @Query("SELECT a FROM Appointments a WHERE a.customer.id = ?1 AND " +
-            "(a.startTime < ?3 AND a.endTime > ?2) AND " +
-            "a.status <> 'CANCELLED'")
-    List<Appointments> findConflictingAppointmentsForCustomer(UUID customerId, OffsetDateTime newStartTime, OffsetDateTime newEndTime);
 }
\ No newline at end of file
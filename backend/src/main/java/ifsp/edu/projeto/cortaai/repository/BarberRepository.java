@@ -6,7 +6,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import ifsp.edu.projeto.cortaai.repository.projection.BarberSummary;
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 
 public interface BarberRepository extends JpaRepository<Barber, UUID> {
@@ -23,6 +30,50 @@ public interface BarberRepository extends JpaRepository<Barber, UUID> {
      Essencial para o "Fluxo 4: Agendamento pelo Cliente".*/
     List<Barber> findByBarbershopId(UUID barbershopId);
 
+    /**
+     * Igual ao findByBarbershopId, mas já carrega as habilidades (activities) de cada barbeiro
+     * na mesma query, evitando uma consulta extra por barbeiro.
+     */
+    @Query("SELECT DISTINCT b FROM Barber b LEFT JOIN FETCH b.activities WHERE b.barbershop.id = ?1")
+    List<Barber> findWithActivitiesByBarbershopId(UUID barbershopId);
+
+    @Query("SELECT b FROM Barber b LEFT JOIN FETCH b.activities WHERE b.id = ?1")
+    Optional<Barber> findWithActivitiesById(UUID id);
+
+    /**
+     * Carrega o barbeiro com lock de escrita (SELECT ... FOR UPDATE), mantido até o fim da transação.
+     * Usado para serializar os agendamentos de um mesmo barbeiro (ver BarberBookingGuard).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Barber b WHERE b.id = ?1")
+    Optional<Barber> findByIdForUpdate(UUID id);
+
     Optional<Barber> findByEmail(String email);
 
+    /**
+     * Regrava o hash da senha no login (custo ou formato antigo), em uma transação própria e curta.
+     * Só altera se o hash ainda for o que foi verificado: uma troca de senha no meio tempo prevalece.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Barber b SET b.password = ?3 WHERE b.id = ?1 AND b.password = ?2")
+    int updatePasswordHash(UUID id, String verifiedHash, String newHash);
+
+    // --- Leituras só com as colunas do BarberDTO (sem carregar entidades) ---
+
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.BarberSummary(b.id, b.workStartTime, b.workEndTime, b.name, b.tell, " +
+            "b.email, b.documentCPF, b.isOwner, s.id, b.imageUrl) FROM Barber b LEFT JOIN b.barbershop s ORDER BY b.id")
+    List<BarberSummary> findAllSummaries();
+
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.BarberSummary(b.id, b.workStartTime, b.workEndTime, b.name, b.tell, " +
+            "b.email, b.documentCPF, b.isOwner, s.id, b.imageUrl) FROM Barber b JOIN b.barbershop s WHERE s.id = ?1")
+    List<BarberSummary> findSummariesByBarbershopId(UUID barbershopId);
+
+    // Versões para os GETs condicionais (ver DataVersion)
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.DataVersion(COUNT(b), MAX(b.lastUpdated)) FROM Barber b")
+    DataVersion findVersion();
+
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.DataVersion(COUNT(b), MAX(b.lastUpdated)) FROM Barber b WHERE b.id = ?1")
+    DataVersion findVersionById(UUID id);
+
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package ifsp.edu.projeto.cortaai.repository;
 
 import ifsp.edu.projeto.cortaai.model.BarbershopHighlight;
+import ifsp.edu.projeto.cortaai.repository.projection.HighlightUrl;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,4 +12,11 @@ public interface BarbershopHighlightRepository extends JpaRepository<BarbershopH
 
     // Usado para verificar a posse antes de excluir
     List<BarbershopHighlight> findByBarbershopId(UUID barbershopId);
+
+    /**
+     * URLs dos destaques de todas as barbearias em uma única query (listagem pública).
+     * Não usa IN com os ids das lojas, então o tamanho da query não cresce com o número de barbearias.
+     */
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.HighlightUrl(h.barbershop.id, h.imageUrl) FROM BarbershopHighlight h")
+    List<HighlightUrl> findAllUrls();
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package ifsp.edu.projeto.cortaai.repository;
 
 import ifsp.edu.projeto.cortaai.model.Barbershop;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import ifsp.edu.projeto.cortaai.repository.projection.BarbershopSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface BarbershopRepository extends JpaRepository<Barbershop, UUID> {
 
@@ -13,4 +16,11 @@ public interface BarbershopRepository extends JpaRepository<Barbershop, UUID> {
      Essencial para o "Fluxo 2: Entrada de Barbeiro".*/
     Optional<Barbershop> findByCnpj(String cnpj);
 
+    /**
+     * Colunas do BarbershopDTO de todas as barbearias, sem carregar entidades (listagem pública).
+     */
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.BarbershopSummary(b.id, b.name, b.cnpj, b.address, b.logoUrl, b.bannerUrl) " +
+            "FROM Barbershop b")
+    List<BarbershopSummary> findAllSummaries();
+
 }
\ No newline at end of file
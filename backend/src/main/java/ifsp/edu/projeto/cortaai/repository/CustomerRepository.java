@@ -1,9 +1,15 @@
 package ifsp.edu.projeto.cortaai.repository;
 
 import ifsp.edu.projeto.cortaai.model.Customer;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import ifsp.edu.projeto.cortaai.repository.projection.CustomerSummary;
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
@@ -18,4 +24,27 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
     // Método findByEmail (sem "IgnoreCase") é usado pelo login.
     Optional<Customer> findByEmail(String email);
+
+    /**
+     * Regrava o hash da senha no login (custo ou formato antigo), em uma transação própria e curta.
+     * Só altera se o hash ainda for o que foi verificado: uma troca de senha no meio tempo prevalece.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Customer c SET c.password = ?3 WHERE c.id = ?1 AND c.password = ?2")
+    int updatePasswordHash(UUID id, String verifiedHash, String newHash);
+
+    /**
+     * Colunas do CustomerDTO de todos os clientes, sem carregar entidades.
+     */
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.CustomerSummary(c.id, c.name, c.tell, c.email, c.documentCPF, c.imageUrl) " +
+            "FROM Customer c ORDER BY c.id")
+    List<CustomerSummary> findAllSummaries();
+
+    // Versões para os GETs condicionais (ver DataVersion)
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.DataVersion(COUNT(c), MAX(c.lastUpdated)) FROM Customer c")
+    DataVersion findVersion();
+
+    @Query("SELECT new ifsp.edu.projeto.cortaai.repository.projection.DataVersion(COUNT(c), MAX(c.lastUpdated)) FROM Customer c WHERE c.id = ?1")
+    DataVersion findVersionById(UUID id);
 }
\ No newline at end of file
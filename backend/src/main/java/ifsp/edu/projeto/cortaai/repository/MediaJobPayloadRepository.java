@@ -0,0 +1,23 @@
+package ifsp.edu.projeto.cortaai.repository;
+
+import ifsp.edu.projeto.cortaai.model.MediaJobPayload;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface MediaJobPayloadRepository extends JpaRepository<MediaJobPayload, UUID> {
+
+    // Sem carregar o conteúdo (o delete derivado do Spring Data faria um findById antes)
+    @Modifying
+    @Query("DELETE FROM MediaJobPayload p WHERE p.id = ?1")
+    int deleteByJobId(UUID jobId);
+
+    // Arquivos de jobs que já terminaram (ex: uploads cancelados antes de rodar)
+    @Modifying
+    @Query("DELETE FROM MediaJobPayload p WHERE p.id IN (SELECT j.id FROM MediaJob j WHERE j.status IN ?1)")
+    int deleteByJobStatusIn(Collection<MediaJobStatus> statuses);
+}
@@ -0,0 +1,48 @@
+package ifsp.edu.projeto.cortaai.repository;
+
+import ifsp.edu.projeto.cortaai.model.MediaJob;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface MediaJobRepository extends JpaRepository<MediaJob, UUID> {
+
+    /**
+     * Jobs prontos para execução (pendentes ou com a reserva de um worker vencida).
+     * SKIP LOCKED (timeout -2): instâncias diferentes nunca pegam o mesmo job e não esperam umas pelas outras.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM MediaJob j WHERE j.status IN ?1 AND j.nextAttemptAt <= ?2 ORDER BY j.nextAttemptAt")
+    List<MediaJob> findDueForUpdate(Collection<MediaJobStatus> statuses, OffsetDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM MediaJob j WHERE j.id = ?1")
+    Optional<MediaJob> findByIdForUpdate(UUID id);
+
+    /**
+     * Cancela os uploads ainda não aplicados para a mesma imagem: o mais novo é o que vale.
+     */
+    @Modifying
+    @Query("UPDATE MediaJob j SET j.status = ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus.CANCELLED, j.lastUpdated = ?4 " +
+            "WHERE j.type = ifsp.edu.projeto.cortaai.model.enums.MediaJobType.UPLOAD " +
+            "AND j.target = ?1 AND j.targetId = ?2 AND j.status IN ?3")
+    int cancelUploads(MediaTarget target, UUID targetId, Collection<MediaJobStatus> statuses, OffsetDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM MediaJob j WHERE j.status IN ?1 AND j.lastUpdated < ?2")
+    int deleteFinishedBefore(Collection<MediaJobStatus> statuses, OffsetDateTime cutoff);
+}
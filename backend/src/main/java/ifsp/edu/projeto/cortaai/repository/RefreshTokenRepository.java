@@ -0,0 +1,28 @@
+package ifsp.edu.projeto.cortaai.repository;
+
+import ifsp.edu.projeto.cortaai.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Marca como usado só se ainda não estava: com duas trocas simultâneas do mesmo token, apenas uma altera a linha
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.tokenHash = ?1 AND r.revoked = false")
+    int revokeIfActive(String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.userId = ?1 AND r.revoked = false")
+    int revokeAllByUserId(UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < ?1")
+    int deleteExpired(OffsetDateTime now);
+}
@@ -0,0 +1,11 @@
+package ifsp.edu.projeto.cortaai.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Colunas de Activity usadas pelo ActivityDTO, lidas diretamente da query (sem entidade gerenciada).
+ */
+public record ActivitySummary(UUID id, String activityName, BigDecimal price, Integer durationMinutes,
+                              UUID barbershopId, String imageUrl) {
+}
@@ -0,0 +1,11 @@
+package ifsp.edu.projeto.cortaai.repository.projection;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Colunas de Barber usadas pelo BarberDTO, lidas diretamente da query (sem entidade gerenciada).
+ */
+public record BarberSummary(UUID id, LocalTime workStartTime, LocalTime workEndTime, String name, String tell,
+                            String email, String documentCPF, boolean owner, UUID barbershopId, String imageUrl) {
+}
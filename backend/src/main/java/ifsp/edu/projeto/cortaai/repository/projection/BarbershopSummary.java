@@ -0,0 +1,9 @@
+package ifsp.edu.projeto.cortaai.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Colunas de Barbershop usadas pelo BarbershopDTO (exceto os destaques), lidas diretamente da query.
+ */
+public record BarbershopSummary(UUID id, String name, String cnpj, String address, String logoUrl, String bannerUrl) {
+}
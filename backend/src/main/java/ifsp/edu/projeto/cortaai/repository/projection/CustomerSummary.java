@@ -0,0 +1,9 @@
+package ifsp.edu.projeto.cortaai.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Colunas de Customer usadas pelo CustomerDTO, lidas diretamente da query (sem entidade gerenciada).
+ */
+public record CustomerSummary(UUID id, String name, String tell, String email, String documentCPF, String imageUrl) {
+}
@@ -0,0 +1,24 @@
+package ifsp.edu.projeto.cortaai.repository.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Versão barata de um conjunto de linhas: quantidade e maior lastUpdated.
+ * Inserções e alterações mudam o maior lastUpdated; exclusões mudam a quantidade.
+ * Usada para responder GETs condicionais (ETag / Last-Modified) sem montar a resposta.
+ */
+public record DataVersion(Long count, OffsetDateTime lastUpdated) {
+
+    public boolean isEmpty() {
+        return count == null || count == 0;
+    }
+
+    public String etag() {
+        return count + "-" + lastModified();
+    }
+
+    // Epoch em milissegundos (-1 quando não há data, o que desliga o If-Modified-Since)
+    public long lastModified() {
+        return lastUpdated != null ? lastUpdated.toInstant().toEpochMilli() : -1;
+    }
+}
@@ -0,0 +1,9 @@
+package ifsp.edu.projeto.cortaai.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * URL de um destaque com o id da barbearia a que pertence.
+ */
+public record HighlightUrl(UUID barbershopId, String imageUrl) {
+}
@@ -0,0 +1,34 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Usuário autenticado, montado pelo JwtAuthorizationFilter a partir das claims do token.
+ * Com o id em mãos, os serviços buscam o usuário pela chave primária (ou nem precisam buscá-lo),
+ * em vez de fazer um findByEmail a cada requisição.
+ *
+ * owner e barbershopId refletem o momento do login: servem para exibição e atalhos de leitura,
+ * mas as ações de dono continuam conferindo o estado atual do barbeiro no banco.
+ * tokenId é o jti do access token, usado para revogá-lo no logout.
+ */
+public record AuthenticatedUser(UUID userId, String email, String userType, boolean owner, UUID barbershopId,
+                                UUID tokenId) implements Principal {
+
+    public static final String CUSTOMER = "CUSTOMER";
+    public static final String BARBER = "BARBER";
+
+    // Mantém principal.getName() devolvendo o e-mail, como antes
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isCustomer() {
+        return CUSTOMER.equals(userType);
+    }
+
+    public boolean isBarber() {
+        return BARBER.equals(userType);
+    }
+}
@@ -0,0 +1,113 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import ifsp.edu.projeto.cortaai.dto.PasswordHashingStatsDTO;
+import ifsp.edu.projeto.cortaai.exception.ServiceUnavailableException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PasswordEncoder que executa o hashing (encode/matches) em um pool próprio, de tamanho fixo e fila limitada.
+ *
+ * O BCrypt é caro de propósito; rodando direto nas threads do servidor, um pico de cadastros ou logins
+ * ocupa todos os núcleos e as requisições baratas (listagens, disponibilidade) ficam esperando CPU.
+ * Aqui, no máximo {@code threads} hashes rodam ao mesmo tempo. Quando a fila enche, a requisição falha na
+ * hora com 503 em vez de se acumular; quem espera mais que {@code timeoutMs} também recebe 503.
+ * A thread da requisição fica bloqueada aguardando o resultado, mas sem consumir CPU.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final int hashStrength;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * @param hashStrength custo dos hashes gerados pelo delegate (apenas informativo, exibido nas estatísticas)
+     */
+    public BoundedPasswordEncoder(final PasswordEncoder delegate, final int hashStrength, final int threads,
+                                  final int queueCapacity, final long timeoutMs) {
+        this.delegate = delegate;
+        this.hashStrength = hashStrength;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Só inspeciona o prefixo do hash; não precisa do pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordHashingStatsDTO stats() {
+        return new PasswordHashingStatsDTO(hashStrength, executor.getMaximumPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, executor.getCompletedTaskCount(),
+                rejected.get(), timeouts.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        final Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException("Servidor ocupado. Tente novamente em instantes.");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Se ainda estiver na fila, a tarefa nem chega a rodar
+            future.cancel(true);
+            timeouts.incrementAndGet();
+            throw new ServiceUnavailableException("Tempo esgotado ao processar a senha. Tente novamente em instantes.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Operação interrompida. Tente novamente em instantes.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt com custo (work factor) definido por ambiente: fixo por configuração ou calibrado na subida
+ * para caber em um orçamento de latência na CPU da máquina (Lambda e EC2 têm CPUs bem diferentes).
+ *
+ * O custo calibrado é um piso: só pede rehash de hashes com custo menor (como o BCryptPasswordEncoder).
+ * Uma calibração mais baixa (CPU mais lenta, subida ruidosa) nunca enfraquece hashes já gravados.
+ * Baixar o custo só acontece quando ele é fixado por configuração (BCRYPT_STRENGTH): aí qualquer
+ * custo diferente do configurado pede rehash, por ser uma decisão deliberada.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$.{53}$");
+
+    // Custos aceitos pelo BCrypt
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 31;
+
+    // Hashes medidos na calibração; usa-se a mediana, que descarta pausas de GC ou de CPU compartilhada
+    private static final int CALIBRATION_PROBES = 5;
+
+    private final int strength;
+    private final boolean pinned;
+
+    /**
+     * @param pinned {@code true} quando o custo veio da configuração (e não da calibração)
+     */
+    public CalibratedBCryptPasswordEncoder(final int strength, final boolean pinned) {
+        super(strength);
+        this.strength = strength;
+        this.pinned = pinned;
+    }
+
+    /**
+     * Maior custo, entre {@code minStrength} e {@code maxStrength}, cujo hash leva no máximo {@code targetMs}
+     * nesta máquina. Mede alguns hashes no custo mínimo (após aquecimento), toma a mediana e extrapola:
+     * cada ponto de custo dobra o tempo. Assim a calibração custa poucos hashes na subida, o que importa na Lambda.
+     */
+    public static int calibrate(final int minStrength, final int maxStrength, final long targetMs) {
+        final int min = Math.max(MIN_STRENGTH, minStrength);
+        final int max = Math.min(MAX_STRENGTH, Math.max(min, maxStrength));
+
+        final BCryptPasswordEncoder probe = new BCryptPasswordEncoder(min);
+        probe.encode("calibration-warmup"); // Aquecimento (JIT)
+        final long[] elapsedNanos = new long[CALIBRATION_PROBES];
+        for (int i = 0; i < CALIBRATION_PROBES; i++) {
+            final long start = System.nanoTime();
+            probe.encode("calibration-probe");
+            elapsedNanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(elapsedNanos);
+        final double elapsedMs = Math.max(0.001, elapsedNanos[CALIBRATION_PROBES / 2] / 1_000_000.0);
+
+        int strength = min;
+        double estimatedMs = elapsedMs;
+        while (strength < max && estimatedMs * 2 <= targetMs) {
+            strength++;
+            estimatedMs *= 2;
+        }
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false; // Não é um hash BCrypt; matches() também o rejeita
+        }
+        final int hashStrength = Integer.parseInt(matcher.group(1));
+        return pinned ? hashStrength != strength : hashStrength < strength;
+    }
+}
@@ -0,0 +1,177 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import ifsp.edu.projeto.cortaai.dto.LoginThrottleStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tentativas de login (token bucket), chamado antes da busca do usuário e do BCrypt.
+ *
+ * Há um balde por IP de origem e outro por e-mail: o primeiro segura rajadas vindas de uma mesma
+ * máquina, o segundo segura ataques distribuídos contra uma mesma conta. O IP é verificado primeiro,
+ * para que tentativas já bloqueadas pelo IP não gastem o balde do e-mail (o que travaria o dono da conta).
+ * Um login bem-sucedido devolve o balde do e-mail ao estado cheio.
+ *
+ * Os baldes ficam em memória, por instância. Baldes cheios equivalem a baldes inexistentes, então a
+ * limpeza periódica os remove; se o limite de chaves for atingido mesmo assim, entradas arbitrárias
+ * são descartadas (no pior caso, o atacante ganha um balde novo).
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final BucketSpec emailSpec;
+    private final BucketSpec ipSpec;
+    private final int maxEntries;
+
+    private final Map<String, Bucket> emailBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejectedByIp = new AtomicLong();
+    private final AtomicLong rejectedByEmail = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LoginRateLimiter(@Value("${app.security.login-throttle.enabled:true}") final boolean enabled,
+                            @Value("${app.security.login-throttle.email.capacity:5}") final int emailCapacity,
+                            @Value("${app.security.login-throttle.email.refill-per-minute:1}") final double emailRefillPerMinute,
+                            @Value("${app.security.login-throttle.ip.capacity:20}") final int ipCapacity,
+                            @Value("${app.security.login-throttle.ip.refill-per-minute:10}") final double ipRefillPerMinute,
+                            @Value("${app.security.login-throttle.max-entries:100000}") final int maxEntries) {
+        this.enabled = enabled;
+        this.emailSpec = BucketSpec.perMinute(emailCapacity, emailRefillPerMinute);
+        this.ipSpec = BucketSpec.perMinute(ipCapacity, ipRefillPerMinute);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Consome uma tentativa do IP e do e-mail.
+     *
+     * @return 0 se a tentativa pode prosseguir; caso contrário, os segundos até a próxima
+     * tentativa ser aceita (valor para o cabeçalho Retry-After)
+     */
+    public long tryAcquire(String email, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        final long now = System.nanoTime();
+
+        long waitNanos = bucket(ipBuckets, clientIp == null ? "" : clientIp, ipSpec, now).tryConsume(now);
+        if (waitNanos > 0) {
+            rejectedByIp.incrementAndGet();
+            return toRetryAfterSeconds(waitNanos);
+        }
+        waitNanos = bucket(emailBuckets, normalize(email), emailSpec, now).tryConsume(now);
+        if (waitNanos > 0) {
+            rejectedByEmail.incrementAndGet();
+            return toRetryAfterSeconds(waitNanos);
+        }
+        allowed.incrementAndGet();
+        return 0;
+    }
+
+    /**
+     * Login bem-sucedido: as tentativas anteriores do e-mail deixam de contar.
+     */
+    public void onSuccess(String email) {
+        if (enabled) {
+            emailBuckets.remove(normalize(email));
+        }
+    }
+
+    public LoginThrottleStatsDTO stats() {
+        return new LoginThrottleStatsDTO(enabled, allowed.get(), rejectedByIp.get(), rejectedByEmail.get(),
+                ipBuckets.size(), emailBuckets.size(), maxEntries, evictions.get());
+    }
+
+    /**
+     * Remove os baldes que já voltaram a ficar cheios (sem efeito sobre os limites).
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.prune-interval-ms:60000}")
+    public void prune() {
+        final long now = System.nanoTime();
+        emailBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private Bucket bucket(Map<String, Bucket> buckets, String key, BucketSpec spec, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxEntries) {
+            evictIfFull(buckets, now);
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(spec, now));
+    }
+
+    private void evictIfFull(Map<String, Bucket> buckets, long now) {
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        Iterator<Bucket> iterator = buckets.values().iterator();
+        while (buckets.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private record BucketSpec(int capacity, double tokensPerNano) {
+        static BucketSpec perMinute(int capacity, double refillPerMinute) {
+            return new BucketSpec(capacity, refillPerMinute / TimeUnit.MINUTES.toNanos(1));
+        }
+    }
+
+    private static final class Bucket {
+
+        private final BucketSpec spec;
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(BucketSpec spec, long now) {
+            this.spec = spec;
+            this.tokens = spec.capacity();
+            this.lastRefill = now;
+        }
+
+        /**
+         * @return 0 se consumiu uma ficha; caso contrário, os nanossegundos até haver uma ficha disponível
+         */
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / spec.tokensPerNano());
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= spec.capacity();
+        }
+
+        private void refill(long now) {
+            if (now <= lastRefill) {
+                return; // Instante lido antes de outra thread atualizar o balde
+            }
+            tokens = Math.min(spec.capacity(), tokens + (now - lastRefill) * spec.tokensPerNano());
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Hash SHA-256 de tokens, usado para guardá-los (em memória ou no banco) sem manter o valor original.
+ */
+public final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    public static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 faz parte de toda JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
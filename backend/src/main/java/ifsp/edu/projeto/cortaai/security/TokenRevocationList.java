@@ -0,0 +1,95 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revogações de access tokens, consultadas pelo JwtAuthorizationFilter a cada requisição.
+ *
+ * Há dois tipos: revogar um usuário (todo token dele emitido até o momento da revogação, usado quando
+ * as claims de dono/barbearia deixam de valer) e revogar um único token pelo jti (logout).
+ * O caminho comum, de token não revogado, é respondido só pelo filtro de Bloom, sem lock e sem banco;
+ * o conjunto exato só é consultado quando o filtro acusa a chave.
+ *
+ * Uma revogação só precisa durar o tempo de vida de um access token: depois disso, todo token
+ * afetado já expirou. A limpeza periódica remove essas entradas e reconstrói o filtro.
+ * Como fica em memória, as revogações não sobrevivem a um restart; os refresh tokens, que ficam
+ * no banco, continuam revogados, então o efeito se limita ao tempo de vida do access token.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int USER = 1;
+    private static final int TOKEN = 2;
+
+    private final long accessTokenTtlMs;
+    private final int expectedEntries;
+
+    // Momento (epoch em milissegundos) da revogação de cada chave
+    private final Map<UUID, Long> revokedUsers = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile UuidBloomFilter filter;
+
+    public TokenRevocationList(@Value("${app.security.jwt.expiration-ms}") final long accessTokenTtlMs,
+                               @Value("${app.security.jwt.revocation.expected-entries:100000}") final int expectedEntries) {
+        this.accessTokenTtlMs = accessTokenTtlMs;
+        this.expectedEntries = expectedEntries;
+        this.filter = new UuidBloomFilter(expectedEntries);
+    }
+
+    /**
+     * Revoga todos os tokens do usuário emitidos até agora, comparando a emissão em milissegundos
+     * (claim iatMs). Com o iat padrão, em segundos, o token renovado logo após a revogação cairia no
+     * mesmo segundo e também seria recusado. Tokens antigos, sem iatMs, seguem pelo iat truncado.
+     */
+    public synchronized void revokeUser(UUID userId) {
+        revokedUsers.put(userId, nowMillis());
+        filter.add(USER, userId);
+    }
+
+    public synchronized void revokeToken(UUID tokenId) {
+        revokedTokens.put(tokenId, nowMillis());
+        filter.add(TOKEN, tokenId);
+    }
+
+    public boolean isRevoked(UUID userId, UUID tokenId, Long issuedAtMs) {
+        final UuidBloomFilter current = filter;
+        if (tokenId != null && current.mightContain(TOKEN, tokenId) && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        if (current.mightContain(USER, userId)) {
+            Long revokedAt = revokedUsers.get(userId);
+            return revokedAt != null && (issuedAtMs == null || issuedAtMs <= revokedAt);
+        }
+        return false;
+    }
+
+    /**
+     * Remove revogações mais antigas que o tempo de vida de um access token e reconstrói o filtro
+     * (filtros de Bloom não permitem remoção). Leitores que ainda usam o filtro antigo continuam
+     * corretos, pois ele contém todas as chaves do novo.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.revocation.prune-interval-ms:60000}")
+    public synchronized void prune() {
+        final long cutoff = nowMillis() - accessTokenTtlMs - 1000;
+        boolean removed = revokedUsers.values().removeIf(revokedAt -> revokedAt < cutoff);
+        removed |= revokedTokens.values().removeIf(revokedAt -> revokedAt < cutoff);
+        if (!removed) {
+            return;
+        }
+        final UuidBloomFilter rebuilt = new UuidBloomFilter(expectedEntries);
+        revokedUsers.keySet().forEach(userId -> rebuilt.add(USER, userId));
+        revokedTokens.keySet().forEach(tokenId -> rebuilt.add(TOKEN, tokenId));
+        filter = rebuilt;
+    }
+
+    private static long nowMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,65 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para UUIDs. "Não contém" é sempre correto; "contém" pode ser falso positivo
+ * (por isso quem usa confirma no conjunto exato). Não aloca objetos na consulta.
+ *
+ * Cada UUID é combinado com um domínio (ex: usuário ou token), para que o mesmo filtro guarde
+ * chaves de tipos diferentes.
+ */
+final class UuidBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Dimensiona o filtro para {@code expectedEntries} com cerca de 1% de falsos positivos.
+     */
+    UuidBloomFilter(int expectedEntries) {
+        long bits = Math.max(64, (long) Math.ceil(expectedEntries * 9.6));
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = 7;
+    }
+
+    void add(int domain, UUID key) {
+        long h1 = hash(domain, key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(int domain, UUID key) {
+        long h1 = hash(domain, key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(int domain, UUID key) {
+        return mix(key.getMostSignificantBits() ^ mix(key.getLeastSignificantBits() + domain));
+    }
+
+    // Finalizador do SplitMix64: espalha bem os bits de entrada
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
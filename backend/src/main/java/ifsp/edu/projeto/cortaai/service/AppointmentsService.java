@@ -1,7 +1,10 @@
 package ifsp.edu.projeto.cortaai.service;
 
+import ifsp.edu.projeto.cortaai.dto.AppointmentFeedQueryDTO;
+import ifsp.edu.projeto.cortaai.dto.AppointmentPageDTO;
 import ifsp.edu.projeto.cortaai.dto.AppointmentRequestDTO;
 import ifsp.edu.projeto.cortaai.dto.AppointmentsDTO;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
 
 import java.util.List;
 
@@ -11,20 +14,26 @@ public interface AppointmentsService {
 
     AppointmentsDTO get(Long id);
 
-    Long create(AppointmentRequestDTO appointmentsDTO, String customerEmail);
+    Long create(AppointmentRequestDTO appointmentsDTO, AuthenticatedUser currentUser);
 
-    void update(Long id, AppointmentRequestDTO appointmentsDTO, String customerEmail);
+    void update(Long id, AppointmentRequestDTO appointmentsDTO, AuthenticatedUser currentUser);
 
-    void cancel(Long id, String userEmail);
+    void cancel(Long id, AuthenticatedUser currentUser);
 
-    List<AppointmentsDTO> findForBarbershop(String ownerEmail);
+    List<AppointmentsDTO> findForBarbershop(AuthenticatedUser currentUser);
 
-    List<AppointmentsDTO> findForCustomer(final String customerEmail);
+    List<AppointmentsDTO> findForCustomer(final AuthenticatedUser currentUser);
 
-    List<AppointmentsDTO> findForBarber(String barberEmail);
+    List<AppointmentsDTO> findForBarber(AuthenticatedUser currentUser);
 
-    void delete(Long id, String userEmail);
+    AppointmentPageDTO findPageForBarbershop(AuthenticatedUser currentUser, AppointmentFeedQueryDTO query);
 
-    void conclude(Long id, String barberEmail);
+    AppointmentPageDTO findPageForBarber(AuthenticatedUser currentUser, AppointmentFeedQueryDTO query);
+
+    AppointmentPageDTO findPageForCustomer(AuthenticatedUser currentUser, AppointmentFeedQueryDTO query);
+
+    void delete(Long id, AuthenticatedUser currentUser);
+
+    void conclude(Long id, AuthenticatedUser currentUser);
 }
 
@@ -4,13 +4,17 @@ import ifsp.edu.projeto.cortaai.dto.*;
 import jakarta.validation.Valid;
 import ifsp.edu.projeto.cortaai.dto.JoinRequestDTO;
 import ifsp.edu.projeto.cortaai.dto.UpdateBarbershopDTO;
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDate; // NOVO: IMPORT ADICIONADO
 import java.time.LocalTime; // NOVO: IMPORT ADICIONADO
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface BarberService {
 
@@ -18,42 +22,55 @@ public interface BarberService {
     List<BarberDTO> findAll();
     BarberDTO get(UUID id);
     UUID create(@Valid CreateBarberDTO createBarberDTO, MultipartFile file) throws IOException;
-    void update(String email, BarberDTO barberDTO);
-    void delete(String email);
+    void update(AuthenticatedUser currentUser, BarberDTO barberDTO);
+    void delete(AuthenticatedUser currentUser);
     LoginResponseDTO login(LoginDTO loginDTO);
+    LoginResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO);
+    void logout(AuthenticatedUser currentUser, RefreshTokenRequestDTO refreshTokenRequestDTO);
+
+    // --- Versões para GETs condicionais (ETag / Last-Modified) ---
+    DataVersion getBarbersVersion();
+    DataVersion getBarberVersion(UUID id);
+    // Listagens do catálogo: ETag das versões do CatalogCache, sem consulta ao banco
+    String getBarbershopsEtag(boolean includeHighlights);
+    String getCatalogEtag(UUID barbershopId);
 
     // --- Gestão de Barbearias (Fluxo 1) ---
-    BarbershopDTO createBarbershop(String ownerEmail, @Valid CreateBarbershopDTO createBarbershopDTO, MultipartFile file) throws IOException;
-    BarbershopDTO updateBarbershop(String ownerEmail, UpdateBarbershopDTO updateBarbershopDTO);
+    BarbershopDTO createBarbershop(AuthenticatedUser currentUser, @Valid CreateBarbershopDTO createBarbershopDTO, MultipartFile file) throws IOException;
+    BarbershopDTO updateBarbershop(AuthenticatedUser currentUser, UpdateBarbershopDTO updateBarbershopDTO);
     BarbershopDTO getBarbershop(UUID barbershopId);
-    List<BarbershopDTO> listBarbershops();
-    void closeBarbershop(String ownerEmail, CloseBarbershopRequestDTO closeBarbershopRequestDTO);
-    ActivityDTO updateActivity(String ownerEmail, UUID activityId, UpdateActivityDTO updateActivityDTO);
-    void deleteActivity(String ownerEmail, UUID activityId);
+    List<BarbershopDTO> listBarbershops(boolean includeHighlights);
+    void closeBarbershop(AuthenticatedUser currentUser, CloseBarbershopRequestDTO closeBarbershopRequestDTO);
+    ActivityDTO updateActivity(AuthenticatedUser currentUser, UUID activityId, UpdateActivityDTO updateActivityDTO);
+    void deleteActivity(AuthenticatedUser currentUser, UUID activityId);
 
     // --- Gestão de Serviços (Fluxo 1) ---
-    ActivityDTO createActivities(String ownerEmail, @Valid CreateActivityDTO createActivityDTO);
+    ActivityDTO createActivities(AuthenticatedUser currentUser, @Valid CreateActivityDTO createActivityDTO);
     List<ActivityDTO> listActivities(UUID barbershopId);
     List<BarberDTO> listBarbersByBarbershop(UUID barbershopId);
     List<ActivityDTO> listActivitiesByBarber(UUID barberId);
 
     // --- Gestão de Vínculos (Fluxos 2 e 3) ---
-    void requestToJoinBarbershop(String barberEmail, String cnpj);
-    void approveJoinRequest(String ownerEmail, Long requestId);
-    void freeBarber(String barberEmail);
-    void removeBarber(String ownerEmail, UUID barberIdToRemove);
-    void rejectJoinRequest(String ownerEmail, Long requestId); // NOVO
-    List<JoinRequestDTO> getPendingJoinRequests(String ownerEmail);
+    void requestToJoinBarbershop(AuthenticatedUser currentUser, String cnpj);
+    void approveJoinRequest(AuthenticatedUser currentUser, Long requestId);
+    void freeBarber(AuthenticatedUser currentUser);
+    void removeBarber(AuthenticatedUser currentUser, UUID barberIdToRemove);
+    void rejectJoinRequest(AuthenticatedUser currentUser, Long requestId); // NOVO
+    List<JoinRequestDTO> getPendingJoinRequests(AuthenticatedUser currentUser);
 
     // --- Gestão de Habilidades (Fluxo 2) ---
-    void assignActivities(String barberEmail, @Valid BarberActivityAssignDTO barberActivityAssignDTO);
-    List<ActivityDTO> getMyAssignedActivities(String barberEmail);
-    void setWorkHours(String email, BarberWorkHoursDTO workHoursDTO);
+    void assignActivities(AuthenticatedUser currentUser, @Valid BarberActivityAssignDTO barberActivityAssignDTO);
+    List<ActivityDTO> getMyAssignedActivities(AuthenticatedUser currentUser);
+    void setWorkHours(AuthenticatedUser currentUser, BarberWorkHoursDTO workHoursDTO);
 
     // -- Método para obter horários disponíveis de um barbeiro --
     List<LocalTime> getAvailableSlots(UUID barberId, LocalDate date, int durationInMinutes);
-    List<JoinRequestHistoryDTO> getJoinRequestHistory(String barberEmail); // NOVO
+    List<JoinRequestHistoryDTO> getJoinRequestHistory(AuthenticatedUser currentUser); // NOVO
     List<DailyAvailabilityDTO> getMonthlyAvailability(UUID barberId, int year, int month);
+    List<BarberAvailabilityDTO> getBarbershopAvailability(UUID barbershopId, LocalDate date, List<UUID> activityIds);
+    Stream<DaySlotsDTO> getAvailabilityRange(UUID barberId, LocalDate from, LocalDate to, int durationInMinutes);
+    List<SlotCapacityDTO> getSlotCapacities(UUID barberId, LocalDate date, List<Integer> durations);
+    List<NextSlotDTO> findNextAvailableSlots(List<UUID> activityIds, OffsetDateTime after, UUID barbershopId, int limit);
 
     // --- Métodos de validação ---
     boolean tellExists(String tell);
@@ -61,12 +78,12 @@ public interface BarberService {
     boolean documentCPFExists(String documentCPF);
 
     // --- MÉTODOS DE UPLOAD DE IMAGEM ---
-    String updateBarberProfilePhoto(String email, MultipartFile file) throws IOException;
-    String updateActivityPhoto(String ownerEmail, UUID activityId, MultipartFile file) throws IOException;
-    String updateBarbershopLogo(String ownerEmail, MultipartFile file) throws IOException;
-    String updateBarbershopBanner(String ownerEmail, MultipartFile file) throws IOException;
-    String addBarbershopHighlight(String ownerEmail, MultipartFile file) throws IOException;
-    void deleteBarbershopHighlight(String ownerEmail, UUID highlightId);
+    MediaJobDTO updateBarberProfilePhoto(AuthenticatedUser currentUser, MultipartFile file) throws IOException;
+    MediaJobDTO updateActivityPhoto(AuthenticatedUser currentUser, UUID activityId, MultipartFile file) throws IOException;
+    MediaJobDTO updateBarbershopLogo(AuthenticatedUser currentUser, MultipartFile file) throws IOException;
+    MediaJobDTO updateBarbershopBanner(AuthenticatedUser currentUser, MultipartFile file) throws IOException;
+    MediaJobDTO addBarbershopHighlight(AuthenticatedUser currentUser, MultipartFile file) throws IOException;
+    void deleteBarbershopHighlight(AuthenticatedUser currentUser, UUID highlightId);
 
 
 }
\ No newline at end of file
@@ -4,6 +4,10 @@ import ifsp.edu.projeto.cortaai.dto.CustomerCreateDTO;
 import ifsp.edu.projeto.cortaai.dto.CustomerDTO;
 import ifsp.edu.projeto.cortaai.dto.LoginDTO;
 import ifsp.edu.projeto.cortaai.dto.LoginResponseDTO; // NOVO IMPORT
+import ifsp.edu.projeto.cortaai.dto.MediaJobDTO;
+import ifsp.edu.projeto.cortaai.dto.RefreshTokenRequestDTO;
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -16,14 +20,24 @@ public interface CustomerService {
 
     CustomerDTO get(UUID id);
 
+    // Versões para GETs condicionais (ETag / Last-Modified)
+    DataVersion getCustomersVersion();
+
+    DataVersion getCustomerVersion(UUID id);
+
     UUID create(CustomerCreateDTO customerCreateDTO, MultipartFile file) throws IOException;
 
-    void update(String email, CustomerDTO customerDTO);
+    void update(AuthenticatedUser currentUser, CustomerDTO customerDTO);
 
-    void delete(String email);
+    void delete(AuthenticatedUser currentUser);
 
     LoginResponseDTO login(LoginDTO loginDTO); // TIPO DE RETORNO ALTERADO
 
+    // Troca um refresh token válido por um novo par de tokens
+    LoginResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO);
+
+    void logout(AuthenticatedUser currentUser, RefreshTokenRequestDTO refreshTokenRequestDTO);
+
     // --- Métodos de validação ---
     boolean tellExists(String tell);
 
@@ -32,6 +46,6 @@ public interface CustomerService {
     boolean documentCPFExists(String documentCPF);
 
     // NOVO MÉTODO
-    String updateProfilePhoto(String email, MultipartFile file) throws IOException;
+    MediaJobDTO updateProfilePhoto(AuthenticatedUser currentUser, MultipartFile file) throws IOException;
 
 }
\ No newline at end of file
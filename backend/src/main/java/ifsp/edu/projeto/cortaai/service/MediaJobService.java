@@ -0,0 +1,35 @@
+package ifsp.edu.projeto.cortaai.service;
+
+import ifsp.edu.projeto.cortaai.dto.MediaJobDTO;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Fila de jobs de mídia: as requisições só registram o job (na transação delas) e retornam;
+ * o upload, a atualização da URL e a exclusão da imagem antiga acontecem em segundo plano.
+ */
+public interface MediaJobService {
+
+    /**
+     * Registra o upload de uma imagem para a entidade informada. Uploads ainda não aplicados
+     * para a mesma imagem são cancelados (vale o mais recente).
+     */
+    MediaJobDTO enqueueUpload(MediaTarget target, UUID targetId, MultipartFile file, UUID requestedBy) throws IOException;
+
+    /**
+     * Registra a exclusão de uma imagem do storage (ignora publicId nulo ou vazio).
+     */
+    void enqueueDelete(String publicId);
+
+    /**
+     * Registra a exclusão de uma imagem que deixou de ser usada (substituída ou removida). A URL dela
+     * ainda pode estar nos caches de outras instâncias, então a exclusão só roda após replaced-delete-delay-ms.
+     */
+    void enqueueReplacedDelete(String publicId);
+
+    MediaJobDTO get(AuthenticatedUser currentUser, UUID jobId);
+}
@@ -0,0 +1,21 @@
+package ifsp.edu.projeto.cortaai.service;
+
+import java.util.UUID;
+
+public interface RefreshTokenService {
+
+    // Emite um novo refresh token para o usuário e retorna o valor a ser entregue ao cliente
+    String issue(UUID userId, String userType);
+
+    // Valida o refresh token, revoga-o (rotação) e retorna o id do usuário dono dele
+    UUID consume(String refreshToken, String userType);
+
+    // Revoga um refresh token específico (logout); tokens desconhecidos são ignorados
+    void revoke(String refreshToken);
+
+    // Revoga todos os refresh tokens do usuário (ex: exclusão da conta)
+    void revokeAll(UUID userId);
+
+    // Logout: revoga o access token atual (pelo jti) e, se informado, o refresh token da sessão
+    void logout(UUID accessTokenId, String refreshToken);
+}
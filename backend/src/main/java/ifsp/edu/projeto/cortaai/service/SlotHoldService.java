@@ -0,0 +1,14 @@
+package ifsp.edu.projeto.cortaai.service;
+
+import ifsp.edu.projeto.cortaai.dto.SlotHoldDTO;
+import ifsp.edu.projeto.cortaai.dto.SlotHoldRequestDTO;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+
+import java.util.UUID;
+
+public interface SlotHoldService {
+
+    SlotHoldDTO create(UUID barberId, SlotHoldRequestDTO request, AuthenticatedUser currentUser);
+
+    void release(UUID barberId, UUID holdId, AuthenticatedUser currentUser);
+}
@@ -3,6 +3,7 @@ package ifsp.edu.projeto.cortaai.service;
 import ifsp.edu.projeto.cortaai.dto.UploadResultDTO; // NOVO IMPORT
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Interface abstrata para serviços de armazenamento de arquivos (ex: Cloudinary, S3).
@@ -19,6 +20,15 @@ public interface StorageService {
      */
     UploadResultDTO uploadFile(MultipartFile file, String folder) throws IOException; // TIPO DE RETORNO ALTERADO
 
+    /**
+     * Faz o upload de um arquivo local (ex: arquivo de um job de mídia).
+     * @param file Caminho do arquivo.
+     * @param folder O caminho/pasta de destino no provedor.
+     * @return Um DTO contendo a URL pública (ou segura) e o Public ID do arquivo.
+     * @throws IOException Se ocorrer um erro durante o upload.
+     */
+    UploadResultDTO uploadFile(Path file, String folder) throws IOException;
+
     /**
      * Deleta um arquivo do provedor de nuvem usando seu Public ID.
      * @param publicId O ID único do arquivo no provedor.
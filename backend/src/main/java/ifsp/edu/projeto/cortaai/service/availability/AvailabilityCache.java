@@ -0,0 +1,169 @@
+package ifsp.edu.projeto.cortaai.service.availability;
+
+import ifsp.edu.projeto.cortaai.cache.BoundedLruCache;
+import ifsp.edu.projeto.cortaai.dto.CacheStatsDTO;
+import ifsp.edu.projeto.cortaai.dto.DailyAvailabilityDTO;
+import ifsp.edu.projeto.cortaai.dto.SlotCapacityDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos resultados de disponibilidade (horários do dia e calendário do mês).
+ *
+ * Cada resultado guarda as versões do barbeiro e do dia (ou mês) no momento em que começou a ser
+ * calculado. As versões são incrementadas depois do commit das escritas que afetam a agenda
+ * (agendamentos e expediente); um resultado cujas versões não batem mais é descartado na leitura.
+ * Assim, nesta instância, nunca é servida uma lista calculada antes de um commit.
+ *
+ * Os commits feitos em outras instâncias não passam por aqui; para limitar esse atraso, cada resultado
+ * também expira ttl-ms depois de calculado. O agendamento em si não depende do cache: o conflito é
+ * verificado no banco, com lock (BarberBookingGuard), então um horário desatualizado só gera uma recusa.
+ */
+@Component
+public class AvailabilityCache {
+
+    // Todas as versões vêm desta sequência, então um valor nunca se repete para a mesma chave
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<UUID, Long> barberVersions = new ConcurrentHashMap<>();
+    private final Map<ScopeKey, Long> dayVersions = new ConcurrentHashMap<>();
+    private final Map<ScopeKey, Long> monthVersions = new ConcurrentHashMap<>();
+
+    // Versão assumida para chaves descartadas na limpeza de dias passados
+    private volatile long prunedFloor = 0;
+
+    private final BoundedLruCache<SlotsKey, Versioned<List<LocalTime>>> slots;
+    private final BoundedLruCache<ScopeKey, Versioned<List<DailyAvailabilityDTO>>> months;
+    private final BoundedLruCache<ScopeKey, Versioned<List<SlotCapacityDTO>>> capacities;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public AvailabilityCache(@Value("${app.availability.cache.max-entries:5000}") final int maxEntries,
+                             @Value("${app.availability.cache.ttl-ms:15000}") final long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.slots = new BoundedLruCache<>("availability-slots", maxEntries);
+        this.months = new BoundedLruCache<>("availability-monthly", maxEntries);
+        this.capacities = new BoundedLruCache<>("availability-capacity", maxEntries);
+    }
+
+    public List<LocalTime> getSlots(UUID barberId, LocalDate date, int durationInMinutes,
+                                    Supplier<List<LocalTime>> loader) {
+        final ScopeKey day = new ScopeKey(barberId, date);
+        // As versões são lidas ANTES do cálculo: se um commit acontecer no meio, o resultado já nasce inválido
+        final long barberVersion = version(barberVersions, barberId);
+        final long dayVersion = version(dayVersions, day);
+
+        final SlotsKey key = new SlotsKey(barberId, date, durationInMinutes);
+        Versioned<List<LocalTime>> cached = slots.get(key, v -> v.matches(
+                version(barberVersions, barberId), version(dayVersions, day)) && isFresh(v));
+        if (cached != null) {
+            return cached.value();
+        }
+
+        List<LocalTime> value = List.copyOf(loader.get());
+        slots.put(key, new Versioned<>(barberVersion, dayVersion, System.nanoTime(), value));
+        return value;
+    }
+
+    /**
+     * Capacidade de cada horário do dia (independe da duração, então há uma entrada por barbeiro e dia).
+     */
+    public List<SlotCapacityDTO> getCapacities(UUID barberId, LocalDate date, Supplier<List<SlotCapacityDTO>> loader) {
+        final ScopeKey day = new ScopeKey(barberId, date);
+        final long barberVersion = version(barberVersions, barberId);
+        final long dayVersion = version(dayVersions, day);
+
+        Versioned<List<SlotCapacityDTO>> cached = capacities.get(day, v -> v.matches(
+                version(barberVersions, barberId), version(dayVersions, day)) && isFresh(v));
+        if (cached != null) {
+            return cached.value();
+        }
+
+        List<SlotCapacityDTO> value = List.copyOf(loader.get());
+        capacities.put(day, new Versioned<>(barberVersion, dayVersion, System.nanoTime(), value));
+        return value;
+    }
+
+    public List<DailyAvailabilityDTO> getMonth(UUID barberId, LocalDate firstDayOfMonth,
+                                               Supplier<List<DailyAvailabilityDTO>> loader) {
+        final ScopeKey month = new ScopeKey(barberId, firstDayOfMonth);
+        final long barberVersion = version(barberVersions, barberId);
+        final long monthVersion = version(monthVersions, month);
+
+        Versioned<List<DailyAvailabilityDTO>> cached = months.get(month, v -> v.matches(
+                version(barberVersions, barberId), version(monthVersions, month)) && isFresh(v));
+        if (cached != null) {
+            return cached.value();
+        }
+
+        List<DailyAvailabilityDTO> value = List.copyOf(loader.get());
+        months.put(month, new Versioned<>(barberVersion, monthVersion, System.nanoTime(), value));
+        return value;
+    }
+
+    /**
+     * Invalida os resultados de um dia (e do mês correspondente) de um barbeiro.
+     */
+    public void invalidateDay(UUID barberId, LocalDate date) {
+        long next = sequence.incrementAndGet();
+        dayVersions.put(new ScopeKey(barberId, date), next);
+        monthVersions.put(new ScopeKey(barberId, date.withDayOfMonth(1)), next);
+        pruneIfNeeded();
+    }
+
+    /**
+     * Invalida todos os resultados de um barbeiro (ex: mudança de expediente).
+     */
+    public void invalidateBarber(UUID barberId) {
+        barberVersions.put(barberId, sequence.incrementAndGet());
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(slots.stats(), months.stats(), capacities.stats());
+    }
+
+    private <K> long version(Map<K, Long> versions, K key) {
+        Long version = versions.get(key);
+        return version != null ? version : prunedFloor;
+    }
+
+    /**
+     * Evita que os mapas de versões cresçam sem limite, descartando as versões de dias que já passaram.
+     * O piso é atualizado antes da remoção, para que nenhum resultado antigo volte a parecer válido.
+     */
+    private void pruneIfNeeded() {
+        if (dayVersions.size() <= maxEntries * 4) {
+            return;
+        }
+        prunedFloor = sequence.incrementAndGet();
+        LocalDate today = LocalDate.now(SlotOccupancyIndex.ZONE_ID);
+        dayVersions.keySet().removeIf(key -> key.date().isBefore(today));
+        monthVersions.keySet().removeIf(key -> key.date().isBefore(today.withDayOfMonth(1)));
+    }
+
+    private record ScopeKey(UUID barberId, LocalDate date) {
+    }
+
+    private record SlotsKey(UUID barberId, LocalDate date, int durationInMinutes) {
+    }
+
+    private boolean isFresh(Versioned<?> versioned) {
+        return System.nanoTime() - versioned.loadedAtNanos() < ttlNanos;
+    }
+
+    private record Versioned<V>(long barberVersion, long scopeVersion, long loadedAtNanos, V value) {
+        boolean matches(long currentBarberVersion, long currentScopeVersion) {
+            return barberVersion == currentBarberVersion && scopeVersion == currentScopeVersion;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ifsp.edu.projeto.cortaai.service.availability;
+
+import ifsp.edu.projeto.cortaai.dto.SlotCapacityDTO;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapa de ocupação de um barbeiro em um dia, com um bit por minuto (bit ligado = minuto ocupado).
+ * Um dia inteiro cabe em 23 longs, e as perguntas do tipo "cabem N minutos a partir daqui?"
+ * são respondidas varrendo palavras inteiras com numberOfTrailingZeros, sem alocar objetos.
+ *
+ * As instâncias são imutáveis depois de publicadas no índice: alterações geram uma cópia
+ * (ver {@link #withOccupied(int, int)}), o que permite leituras concorrentes sem lock.
+ */
+public final class DayOccupancy {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] words;
+
+    DayOccupancy() {
+        this.words = new long[WORDS];
+    }
+
+    private DayOccupancy(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Marca o intervalo [fromMinute, toMinute) como ocupado. Usado apenas durante a construção.
+     */
+    void occupy(int fromMinute, int toMinute) {
+        int from = Math.max(0, fromMinute);
+        int to = Math.min(MINUTES_PER_DAY, toMinute);
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            words[w] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    /**
+     * Retorna uma cópia com o intervalo [fromMinute, toMinute) marcado como ocupado.
+     */
+    DayOccupancy withOccupied(int fromMinute, int toMinute) {
+        DayOccupancy copy = new DayOccupancy(words.clone());
+        copy.occupy(fromMinute, toMinute);
+        return copy;
+    }
+
+    /**
+     * Primeiro minuto ocupado a partir de {@code fromMinute} (ou MINUTES_PER_DAY se não houver).
+     */
+    public int nextBusy(int fromMinute) {
+        if (fromMinute >= MINUTES_PER_DAY) {
+            return MINUTES_PER_DAY;
+        }
+        int w = fromMinute >>> 6;
+        long word = words[w] & (-1L << fromMinute);
+        while (word == 0) {
+            if (++w == WORDS) {
+                return MINUTES_PER_DAY;
+            }
+            word = words[w];
+        }
+        return Math.min((w << 6) + Long.numberOfTrailingZeros(word), MINUTES_PER_DAY);
+    }
+
+    /**
+     * Primeiro minuto livre a partir de {@code fromMinute} (ou MINUTES_PER_DAY se não houver).
+     */
+    public int nextFree(int fromMinute) {
+        if (fromMinute >= MINUTES_PER_DAY) {
+            return MINUTES_PER_DAY;
+        }
+        int w = fromMinute >>> 6;
+        long word = ~words[w] & (-1L << fromMinute);
+        while (word == 0) {
+            if (++w == WORDS) {
+                return MINUTES_PER_DAY;
+            }
+            word = ~words[w];
+        }
+        return Math.min((w << 6) + Long.numberOfTrailingZeros(word), MINUTES_PER_DAY);
+    }
+
+    /**
+     * Verifica se há ao menos um horário livre de {@code durationInMinutes} dentro do expediente,
+     * seguindo a mesma grade de sugestões de {@link #availableSlots}. Não aloca objetos.
+     */
+    public boolean hasSlot(LocalTime workStart, LocalTime workEnd, int durationInMinutes, int slotIntervalMinutes) {
+        final int workEndMinute = toMinute(workEnd);
+        int blockStart = nextFree(toMinute(workStart));
+        while (blockStart < workEndMinute) {
+            int blockEnd = Math.min(nextBusy(blockStart), workEndMinute);
+            // O primeiro candidato do bloco é o que tem mais espaço livre à frente
+            if (blockStart + durationInMinutes <= blockEnd) {
+                return true;
+            }
+            blockStart = nextFree(blockEnd);
+        }
+        return false;
+    }
+
+    /**
+     * Lista os horários de início possíveis: a partir do começo de cada bloco livre, avança de
+     * {@code slotIntervalMinutes} em {@code slotIntervalMinutes} enquanto o serviço couber no bloco.
+     */
+    public List<LocalTime> availableSlots(LocalTime workStart, LocalTime workEnd, int durationInMinutes, int slotIntervalMinutes) {
+        final int workEndMinute = toMinute(workEnd);
+        List<LocalTime> slots = new ArrayList<>();
+        int blockStart = nextFree(toMinute(workStart));
+        while (blockStart < workEndMinute) {
+            int blockEnd = Math.min(nextBusy(blockStart), workEndMinute);
+            for (int slot = blockStart; slot < blockEnd && slot + durationInMinutes <= blockEnd; slot += slotIntervalMinutes) {
+                slots.add(LocalTime.of(slot / 60, slot % 60));
+            }
+            blockStart = nextFree(blockEnd);
+        }
+        return slots;
+    }
+
+    /**
+     * Lista todos os horários de início da grade com a quantidade de minutos livres contíguos a
+     * partir de cada um. Um serviço de N minutos cabe exatamente nos horários com maxFreeMinutes >= N,
+     * então uma única varredura responde a qualquer duração.
+     */
+    public List<SlotCapacityDTO> slotCapacities(LocalTime workStart, LocalTime workEnd, int slotIntervalMinutes) {
+        final int workEndMinute = toMinute(workEnd);
+        List<SlotCapacityDTO> slots = new ArrayList<>();
+        int blockStart = nextFree(toMinute(workStart));
+        while (blockStart < workEndMinute) {
+            int blockEnd = Math.min(nextBusy(blockStart), workEndMinute);
+            for (int slot = blockStart; slot < blockEnd; slot += slotIntervalMinutes) {
+                slots.add(new SlotCapacityDTO(LocalTime.of(slot / 60, slot % 60), blockEnd - slot));
+            }
+            blockStart = nextFree(blockEnd);
+        }
+        return slots;
+    }
+
+    /**
+     * Cursor sobre os horários livres a partir de {@code fromMinute} (minuto do dia).
+     */
+    public FreeSlotCursor cursor(LocalTime workStart, LocalTime workEnd, int durationInMinutes,
+                                 int slotIntervalMinutes, int fromMinute) {
+        return new FreeSlotCursor(this, workStart, workEnd, durationInMinutes, slotIntervalMinutes, fromMinute);
+    }
+
+    static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,80 @@
+package ifsp.edu.projeto.cortaai.service.availability;
+
+import java.time.LocalTime;
+
+/**
+ * Percorre, sob demanda, os horários de início livres de um dia (mesma grade de
+ * {@link DayOccupancy#availableSlots}), sem montar a lista completa. Usado quando só os
+ * primeiros horários interessam, como na busca pelo "próximo horário disponível".
+ */
+public final class FreeSlotCursor {
+
+    private final DayOccupancy occupancy;
+    private final int workEndMinute;
+    private final int durationInMinutes;
+    private final int slotIntervalMinutes;
+
+    private int blockEnd;
+    private int current = -1;
+
+    FreeSlotCursor(DayOccupancy occupancy, LocalTime workStart, LocalTime workEnd,
+                   int durationInMinutes, int slotIntervalMinutes, int fromMinute) {
+        this.occupancy = occupancy;
+        this.workEndMinute = DayOccupancy.toMinute(workEnd);
+        this.durationInMinutes = durationInMinutes;
+        this.slotIntervalMinutes = slotIntervalMinutes;
+
+        int blockStart = occupancy.nextFree(DayOccupancy.toMinute(workStart));
+        while (blockStart < workEndMinute) {
+            blockEnd = Math.min(occupancy.nextBusy(blockStart), workEndMinute);
+            if (blockEnd > fromMinute) {
+                // Mantém a grade ancorada no início do bloco, pulando os horários antes de fromMinute
+                int slot = blockStart;
+                if (slot < fromMinute) {
+                    slot += ((fromMinute - blockStart + slotIntervalMinutes - 1) / slotIntervalMinutes) * slotIntervalMinutes;
+                }
+                if (fits(slot)) {
+                    current = slot;
+                    return;
+                }
+            }
+            blockStart = occupancy.nextFree(blockEnd);
+        }
+    }
+
+    /**
+     * Minuto do dia do horário atual, ou -1 quando não há mais horários.
+     */
+    public int current() {
+        return current;
+    }
+
+    public boolean hasCurrent() {
+        return current >= 0;
+    }
+
+    public void advance() {
+        if (current < 0) {
+            return;
+        }
+        int slot = current + slotIntervalMinutes;
+        if (fits(slot)) {
+            current = slot;
+            return;
+        }
+        int blockStart = occupancy.nextFree(blockEnd);
+        while (blockStart < workEndMinute) {
+            blockEnd = Math.min(occupancy.nextBusy(blockStart), workEndMinute);
+            if (fits(blockStart)) {
+                current = blockStart;
+                return;
+            }
+            blockStart = occupancy.nextFree(blockEnd);
+        }
+        current = -1;
+    }
+
+    private boolean fits(int slot) {
+        return slot < blockEnd && slot + durationInMinutes <= blockEnd;
+    }
+}
@@ -0,0 +1,20 @@
+package ifsp.edu.projeto.cortaai.service.availability;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Reserva temporária de um horário por um cliente, válida até {@code expiresAt}.
+ */
+public record SlotHold(UUID id, UUID barberId, UUID customerId,
+                       OffsetDateTime startTime, OffsetDateTime endTime, Instant expiresAt) {
+
+    boolean isActive(Instant now) {
+        return expiresAt.isAfter(now);
+    }
+
+    boolean overlaps(OffsetDateTime start, OffsetDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+}
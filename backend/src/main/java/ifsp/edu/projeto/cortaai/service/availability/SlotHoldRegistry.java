@@ -0,0 +1,179 @@
+package ifsp.edu.projeto.cortaai.service.availability;
+
+import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.exception.ReferenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reservas temporárias de horários, mantidas apenas em memória e com expiração (TTL).
+ *
+ * Enquanto está ativa, uma reserva conta como horário ocupado para a disponibilidade e impede que
+ * outro cliente agende no mesmo intervalo; o agendamento do próprio cliente consome a reserva.
+ * Cada cliente tem no máximo uma reserva: uma nova substitui a anterior.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private final AvailabilityCache availabilityCache;
+    private final Duration ttl;
+
+    // As listas de cada barbeiro são pequenas; o acesso é sincronizado na própria lista
+    private final Map<UUID, List<SlotHold>> holdsByBarber = new ConcurrentHashMap<>();
+    private final Map<UUID, SlotHold> holdsByCustomer = new ConcurrentHashMap<>();
+
+    public SlotHoldRegistry(final AvailabilityCache availabilityCache,
+                            @Value("${app.availability.holds.ttl-seconds:300}") final long ttlSeconds) {
+        this.availabilityCache = availabilityCache;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Reserva o intervalo para o cliente. Falha se houver uma reserva ativa de outro cliente no intervalo.
+     */
+    public SlotHold hold(UUID barberId, UUID customerId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        final Instant now = Instant.now();
+        final SlotHold hold = new SlotHold(UUID.randomUUID(), barberId, customerId, startTime, endTime, now.plus(ttl));
+
+        final List<SlotHold> holds = holdsByBarber.computeIfAbsent(barberId, id -> new ArrayList<>());
+        synchronized (holds) {
+            checkNotHeldByOthers(barberId, customerId, startTime, endTime);
+            holds.add(hold);
+        }
+        availabilityCache.invalidateDay(barberId, localDate(startTime));
+
+        final SlotHold previous = holdsByCustomer.put(customerId, hold);
+        if (previous != null) {
+            remove(previous);
+        }
+        return hold;
+    }
+
+    /**
+     * Cancela a reserva do cliente.
+     */
+    public void release(UUID holdId, UUID customerId) {
+        final SlotHold hold = holdsByCustomer.get(customerId);
+        if (hold == null || !hold.id().equals(holdId)) {
+            throw new NotFoundException("Reserva não encontrada.");
+        }
+        holdsByCustomer.remove(customerId, hold);
+        remove(hold);
+    }
+
+    /**
+     * Falha se houver reserva ativa de outro cliente sobreposta ao intervalo.
+     */
+    public void checkNotHeldByOthers(UUID barberId, UUID customerId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        final List<SlotHold> holds = holdsByBarber.get(barberId);
+        if (holds == null) {
+            return;
+        }
+        final Instant now = Instant.now();
+        synchronized (holds) {
+            for (SlotHold existing : holds) {
+                if (existing.isActive(now) && existing.overlaps(startTime, endTime)
+                        && !existing.customerId().equals(customerId)) {
+                    throw new ReferenceException("Horário reservado temporariamente por outro cliente.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Chamado depois do commit do agendamento: consome as reservas do próprio cliente que se sobrepõem
+     * ao intervalo. As reservas de outros clientes já foram verificadas (checkNotHeldByOthers) dentro da
+     * transação e não são tocadas aqui.
+     */
+    public void claim(UUID barberId, UUID customerId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        final List<SlotHold> holds = holdsByBarber.get(barberId);
+        if (holds == null) {
+            return;
+        }
+        final List<SlotHold> consumed = new ArrayList<>();
+        synchronized (holds) {
+            for (SlotHold existing : holds) {
+                if (existing.customerId().equals(customerId) && existing.overlaps(startTime, endTime)) {
+                    consumed.add(existing);
+                }
+            }
+            holds.removeAll(consumed);
+        }
+        for (SlotHold hold : consumed) {
+            holdsByCustomer.remove(customerId, hold);
+            availabilityCache.invalidateDay(barberId, localDate(hold.startTime()));
+        }
+    }
+
+    /**
+     * Ocupação do dia com as reservas ativas do barbeiro marcadas como ocupadas.
+     * Sem reservas no dia, a própria instância recebida é retornada.
+     */
+    public DayOccupancy overlay(UUID barberId, LocalDate date, DayOccupancy occupancy) {
+        final List<SlotHold> holds = holdsByBarber.get(barberId);
+        if (holds == null) {
+            return occupancy;
+        }
+        final Instant now = Instant.now();
+        DayOccupancy result = occupancy;
+        synchronized (holds) {
+            for (SlotHold hold : holds) {
+                if (hold.isActive(now) && localDate(hold.startTime()).equals(date)) {
+                    int[] minutes = SlotOccupancyIndex.toMinuteRange(date, hold.startTime(), hold.endTime());
+                    result = result.withOccupied(minutes[0], minutes[1]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove as reservas expiradas e libera os dias correspondentes no cache de disponibilidade.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.holds.sweep-interval-ms:5000}")
+    public void purgeExpired() {
+        final Instant now = Instant.now();
+        for (List<SlotHold> holds : holdsByBarber.values()) {
+            final List<SlotHold> expired = new ArrayList<>();
+            synchronized (holds) {
+                for (Iterator<SlotHold> it = holds.iterator(); it.hasNext(); ) {
+                    SlotHold hold = it.next();
+                    if (!hold.isActive(now)) {
+                        it.remove();
+                        expired.add(hold);
+                    }
+                }
+            }
+            for (SlotHold hold : expired) {
+                holdsByCustomer.remove(hold.customerId(), hold);
+                availabilityCache.invalidateDay(hold.barberId(), localDate(hold.startTime()));
+            }
+        }
+    }
+
+    private void remove(SlotHold hold) {
+        final List<SlotHold> holds = holdsByBarber.get(hold.barberId());
+        if (holds != null) {
+            synchronized (holds) {
+                holds.remove(hold);
+            }
+        }
+        availabilityCache.invalidateDay(hold.barberId(), localDate(hold.startTime()));
+    }
+
+    private static LocalDate localDate(OffsetDateTime dateTime) {
+        return dateTime.atZoneSameInstant(SlotOccupancyIndex.ZONE_ID).toLocalDate();
+    }
+}
@@ -0,0 +1,252 @@
+package ifsp.edu.projeto.cortaai.service.availability;
+
+import ifsp.edu.projeto.cortaai.model.Appointments;
+import ifsp.edu.projeto.cortaai.repository.AppointmentsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice em memória com a ocupação de cada (barbeiro, dia), usado pelo cálculo de disponibilidade.
+ *
+ * Os dias são carregados do banco na primeira consulta e mantidos atualizados pelos commits de
+ * agendamentos (ver AvailabilityChangeListener). Como a disponibilidade é lida muito mais do que
+ * escrita, as leituras seguintes não acessam o banco.
+ *
+ * Os commits de outras instâncias não chegam ao índice, então cada dia expira ttl-ms depois de carregado
+ * e é relido do banco. O BarberBookingGuard verifica o conflito no banco, independente do índice.
+ */
+@Component
+public class SlotOccupancyIndex {
+
+    // Fuso horário usado para interpretar expediente e agendamentos
+    public static final ZoneId ZONE_ID = ZoneId.of("America/Sao_Paulo");
+
+    private final AppointmentsRepository appointmentsRepository;
+    private final Map<DayKey, IndexedDay> days = new ConcurrentHashMap<>();
+
+    // Incrementado a cada escrita; impede que uma carga iniciada antes de um commit
+    // publique no índice uma ocupação já desatualizada.
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    @Value("${app.availability.index.max-days:20000}")
+    private int maxDays;
+
+    @Value("${app.availability.index.ttl-ms:15000}")
+    private long ttlMs;
+
+    public SlotOccupancyIndex(final AppointmentsRepository appointmentsRepository) {
+        this.appointmentsRepository = appointmentsRepository;
+    }
+
+    /**
+     * Ocupação do barbeiro no dia informado (carrega do banco se ainda não estiver no índice).
+     */
+    public DayOccupancy get(UUID barberId, LocalDate date) {
+        DayOccupancy occupancy = fresh(new DayKey(barberId, date));
+        if (occupancy != null) {
+            return occupancy;
+        }
+        return load(barberId, date, date).get(date);
+    }
+
+    /**
+     * Ocupação do barbeiro para cada dia do intervalo [from, to]. Os dias ausentes do índice
+     * são carregados juntos, com uma única query.
+     */
+    public Map<LocalDate, DayOccupancy> getRange(UUID barberId, LocalDate from, LocalDate to) {
+        Map<LocalDate, DayOccupancy> result = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DayOccupancy occupancy = fresh(new DayKey(barberId, date));
+            if (occupancy == null) {
+                return load(barberId, from, to);
+            }
+            result.put(date, occupancy);
+        }
+        return result;
+    }
+
+    /**
+     * Ocupação de vários barbeiros no mesmo dia. Os barbeiros ausentes do índice são
+     * carregados juntos, com uma única query.
+     */
+    public Map<UUID, DayOccupancy> getForBarbers(Collection<UUID> barberIds, LocalDate date) {
+        Map<UUID, DayOccupancy> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID barberId : barberIds) {
+            DayOccupancy occupancy = fresh(new DayKey(barberId, date));
+            if (occupancy == null) {
+                missing.add(barberId);
+            } else {
+                result.put(barberId, occupancy);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        final long generation = writeGeneration.get();
+
+        OffsetDateTime startOfDay = date.atStartOfDay(ZONE_ID).toOffsetDateTime();
+        OffsetDateTime endOfDay = date.atTime(LocalTime.MAX).atZone(ZONE_ID).toOffsetDateTime();
+
+        Map<UUID, DayOccupancy> loaded = new HashMap<>();
+        for (UUID barberId : missing) {
+            loaded.put(barberId, new DayOccupancy());
+        }
+        for (Appointments appointment : appointmentsRepository
+                .findActiveByBarberIdInAndStartTimeBetween(missing, startOfDay, endOfDay)) {
+            int[] minutes = toMinuteRange(date, appointment.getStartTime(), appointment.getEndTime());
+            loaded.get(appointment.getBarber().getId()).occupy(minutes[0], minutes[1]);
+        }
+
+        evictIfFull(loaded.size());
+        loaded.forEach((barberId, occupancy) -> install(new DayKey(barberId, date), occupancy, generation));
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * Verifica se o intervalo não se sobrepõe a nenhum agendamento do barbeiro.
+     */
+    public boolean isFree(UUID barberId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        LocalDate date = startTime.atZoneSameInstant(ZONE_ID).toLocalDate();
+        int[] minutes = toMinuteRange(date, startTime, endTime);
+        return get(barberId, date).nextBusy(minutes[0]) >= minutes[1];
+    }
+
+    /**
+     * Marca como ocupado o intervalo de um agendamento recém-confirmado.
+     * Dias que ainda não estão no índice são ignorados (serão carregados do banco quando consultados).
+     */
+    public void occupy(UUID barberId, OffsetDateTime startTime, OffsetDateTime endTime) {
+        writeGeneration.incrementAndGet();
+        LocalDate date = startTime.atZoneSameInstant(ZONE_ID).toLocalDate();
+        int[] minutes = toMinuteRange(date, startTime, endTime);
+        days.computeIfPresent(new DayKey(barberId, date),
+                (key, day) -> new IndexedDay(day.occupancy().withOccupied(minutes[0], minutes[1]), day.loadedAtNanos()));
+    }
+
+    /**
+     * Remove do índice o dia de um intervalo liberado (cancelamento, exclusão ou remarcação).
+     * Na próxima consulta o dia é recarregado do banco.
+     */
+    public void release(UUID barberId, OffsetDateTime startTime) {
+        writeGeneration.incrementAndGet();
+        LocalDate date = startTime.atZoneSameInstant(ZONE_ID).toLocalDate();
+        days.remove(new DayKey(barberId, date));
+    }
+
+    private Map<LocalDate, DayOccupancy> load(UUID barberId, LocalDate from, LocalDate to) {
+        final long generation = writeGeneration.get();
+
+        OffsetDateTime rangeStart = from.atStartOfDay(ZONE_ID).toOffsetDateTime();
+        OffsetDateTime rangeEnd = to.atTime(LocalTime.MAX).atZone(ZONE_ID).toOffsetDateTime();
+
+        Map<LocalDate, DayOccupancy> loaded = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            loaded.put(date, new DayOccupancy());
+        }
+        for (Appointments appointment : appointmentsRepository
+                .findActiveByBarberIdAndStartTimeBetween(barberId, rangeStart, rangeEnd)) {
+            LocalDate date = appointment.getStartTime().atZoneSameInstant(ZONE_ID).toLocalDate();
+            int[] minutes = toMinuteRange(date, appointment.getStartTime(), appointment.getEndTime());
+            loaded.get(date).occupy(minutes[0], minutes[1]);
+        }
+
+        evictIfFull(loaded.size());
+        loaded.forEach((date, occupancy) -> install(new DayKey(barberId, date), occupancy, generation));
+        return loaded;
+    }
+
+    /**
+     * Publica no índice um dia recém-carregado, desde que nenhuma escrita tenha ocorrido desde o
+     * início da carga. A verificação acontece dentro do compute, atomicamente com as escritas na mesma chave.
+     */
+    private void install(DayKey key, DayOccupancy occupancy, long generation) {
+        days.compute(key, (k, current) -> {
+            if (current != null && isFresh(current)) {
+                return current;
+            }
+            return writeGeneration.get() == generation ? new IndexedDay(occupancy, System.nanoTime()) : null;
+        });
+    }
+
+    /**
+     * Dia do índice, se ainda estiver dentro do ttl-ms; dias expirados são removidos (e recarregados por quem chamou).
+     */
+    private DayOccupancy fresh(DayKey key) {
+        IndexedDay day = days.get(key);
+        if (day == null) {
+            return null;
+        }
+        if (!isFresh(day)) {
+            days.remove(key, day);
+            return null;
+        }
+        return day.occupancy();
+    }
+
+    private boolean isFresh(IndexedDay day) {
+        return System.nanoTime() - day.loadedAtNanos() < ttlMs * 1_000_000;
+    }
+
+    /**
+     * Mantém o índice limitado: descarta primeiro os dias que já passaram e, se ainda faltar espaço,
+     * entradas arbitrárias (elas são apenas recarregadas do banco quando necessário).
+     */
+    private void evictIfFull(int incoming) {
+        if (days.size() + incoming <= maxDays) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZONE_ID);
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+
+        Iterator<DayKey> iterator = days.keySet().iterator();
+        while (days.size() + incoming > maxDays && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Converte o intervalo de um agendamento em minutos do dia [início, fim), arredondando
+     * para fora. Agendamentos que atravessam a meia-noite ocupam até o fim do dia.
+     */
+    static int[] toMinuteRange(LocalDate date, OffsetDateTime startTime, OffsetDateTime endTime) {
+        ZonedDateTime start = startTime.atZoneSameInstant(ZONE_ID);
+        ZonedDateTime end = endTime.atZoneSameInstant(ZONE_ID);
+
+        int startMinute = start.getHour() * 60 + start.getMinute();
+        int endMinute;
+        if (end.toLocalDate().isAfter(date)) {
+            endMinute = DayOccupancy.MINUTES_PER_DAY;
+        } else {
+            endMinute = end.getHour() * 60 + end.getMinute();
+            if (end.getSecond() > 0 || end.getNano() > 0) {
+                endMinute++;
+            }
+        }
+        return new int[]{startMinute, endMinute};
+    }
+
+    private record DayKey(UUID barberId, LocalDate date) {
+    }
+
+    private record IndexedDay(DayOccupancy occupancy, long loadedAtNanos) {
+    }
+}
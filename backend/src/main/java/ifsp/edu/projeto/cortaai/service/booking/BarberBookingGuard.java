@@ -0,0 +1,75 @@
+package ifsp.edu.projeto.cortaai.service.booking;
+
+import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.exception.ReferenceException;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.repository.BarberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializa as escritas na agenda de um mesmo barbeiro, sem bloquear os demais.
+ *
+ * Duas camadas: um lock em memória por faixa (lock striping), que evita que requisições da mesma
+ * instância disputem o banco, e um SELECT ... FOR UPDATE na linha do barbeiro, que protege entre
+ * instâncias. Ambos são mantidos até o fim da transação, então a verificação de conflitos e o save
+ * de uma reserva nunca se intercalam com os de outra para o mesmo barbeiro.
+ */
+@Component
+public class BarberBookingGuard {
+
+    private final BarberRepository barberRepository;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMs;
+
+    public BarberBookingGuard(final BarberRepository barberRepository,
+                              @Value("${app.booking.lock-stripes:256}") final int stripeCount,
+                              @Value("${app.booking.lock-timeout-ms:5000}") final long lockTimeoutMs) {
+        this.barberRepository = barberRepository;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Trava a agenda do barbeiro até o fim da transação atual e retorna o barbeiro.
+     *
+     * Deve ser a PRIMEIRA leitura da transação: no MySQL (REPEATABLE READ) o snapshot é criado na
+     * primeira leitura comum, e precisa nascer depois do lock para enxergar a reserva que acabou de
+     * ser confirmada pela transação anterior.
+     */
+    public Barber lockBarber(UUID barberId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("O lock de agenda deve ser obtido dentro de uma transação.");
+        }
+
+        final ReentrantLock lock = stripes[Math.floorMod(barberId.hashCode(), stripes.length)];
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ReferenceException("Muitas solicitações para este barbeiro no momento. Tente novamente.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReferenceException("Muitas solicitações para este barbeiro no momento. Tente novamente.");
+        }
+
+        // Liberado somente depois do commit/rollback (na mesma thread que obteve o lock)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+
+        return barberRepository.findByIdForUpdate(barberId)
+                .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
+    }
+}
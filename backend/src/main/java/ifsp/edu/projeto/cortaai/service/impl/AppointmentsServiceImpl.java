@@ -1,7 +1,12 @@
 package ifsp.edu.projeto.cortaai.service.impl;
 
+import ifsp.edu.projeto.cortaai.dto.AppointmentFeedQueryDTO;
+import ifsp.edu.projeto.cortaai.dto.AppointmentPageDTO;
 import ifsp.edu.projeto.cortaai.dto.AppointmentRequestDTO;
 import ifsp.edu.projeto.cortaai.dto.AppointmentsDTO;
+import ifsp.edu.projeto.cortaai.events.AppointmentBooked;
+import ifsp.edu.projeto.cortaai.events.AppointmentReleased;
+import ifsp.edu.projeto.cortaai.events.SlotHoldClaimed;
 import ifsp.edu.projeto.cortaai.exception.NotFoundException;
 import ifsp.edu.projeto.cortaai.exception.ReferenceException;
 import ifsp.edu.projeto.cortaai.mapper.AppointmentMapper;
@@ -9,17 +14,27 @@ import ifsp.edu.projeto.cortaai.model.*;
 import ifsp.edu.projeto.cortaai.model.enums.AppointmentStatus;
 import ifsp.edu.projeto.cortaai.repository.*;
 import ifsp.edu.projeto.cortaai.service.AppointmentsService;
-import org.springframework.data.domain.Sort;
+import ifsp.edu.projeto.cortaai.service.availability.SlotHoldRegistry;
+import ifsp.edu.projeto.cortaai.service.booking.BarberBookingGuard;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class AppointmentsServiceImpl implements AppointmentsService {
@@ -30,48 +45,70 @@ public class AppointmentsServiceImpl implements AppointmentsService {
     private final BarbershopRepository barbershopRepository;
     private final ActivityRepository activityRepository;
     private final AppointmentMapper appointmentMapper;
+    private final ApplicationEventPublisher publisher;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final BarberBookingGuard barberBookingGuard;
 
     public AppointmentsServiceImpl(final AppointmentsRepository appointmentsRepository,
                                    final BarberRepository barberRepository,
                                    final CustomerRepository customerRepository,
                                    final BarbershopRepository barbershopRepository,
                                    final ActivityRepository activityRepository,
-                                   final AppointmentMapper appointmentMapper) {
+                                   final AppointmentMapper appointmentMapper,
+                                   final ApplicationEventPublisher publisher,
+                                   final SlotHoldRegistry slotHoldRegistry,
+                                   final BarberBookingGuard barberBookingGuard) {
         this.appointmentsRepository = appointmentsRepository;
         this.barberRepository = barberRepository;
         this.customerRepository = customerRepository;
         this.barbershopRepository = barbershopRepository;
         this.activityRepository = activityRepository;
         this.appointmentMapper = appointmentMapper;
+        this.publisher = publisher;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.barberBookingGuard = barberBookingGuard;
     }
 
-    // MÉTODO AUXILIAR NOVO
-    private Customer findCustomerByEmail(String email) {
-        return customerRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("Cliente (usuário autenticado) não encontrado"));
+    // Busca o barbeiro autenticado pela chave primária (sempre no banco: as checagens de dono dependem do estado atual)
+    private Barber findBarber(AuthenticatedUser currentUser) {
+        return barberRepository.findById(currentUser.userId())
+                .orElseThrow(() -> new NotFoundException("Barbeiro (usuário autenticado) não encontrado"));
     }
 
-    private Barber findBarberByEmail(String email) {
-        return barberRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("Barbeiro (usuário autenticado) não encontrado"));
+    private void checkConflicts(UUID barberId, UUID customerId, OffsetDateTime startTime, OffsetDateTime endTime, Long excludeId) {
+        final AppointmentsRepository.BookingConflicts conflicts = appointmentsRepository.findBookingConflicts(
+                barberId, customerId, startTime, endTime, excludeId);
+
+        if (conflicts.barberConflict()) {
+            throw new ReferenceException("Horário indisponível. Já existe um agendamento neste bloco.");
+        }
+        if (conflicts.customerConflict()) {
+            throw new ReferenceException("Você já possui outro agendamento neste mesmo horário.");
+        }
     }
 
+    // Tamanho de página padrão e máximo das listagens paginadas
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Limites usados quando from/to não são informados (dentro da faixa aceita pelo MySQL)
+    private static final OffsetDateTime FEED_START = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime FEED_END = OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
     @Override
     @Transactional(readOnly = true)
-    public List<AppointmentsDTO> findForBarber(final String barberEmail) { // ALTERADO
-        // Valida se o barbeiro existe (pelo email)
-        final Barber barber = findBarberByEmail(barberEmail);
-
-        return appointmentsRepository.findByBarberId(barber.getId()).stream()
+    public List<AppointmentsDTO> findForBarber(final AuthenticatedUser currentUser) { // ALTERADO
+        // O id vem do token: não é preciso buscar o barbeiro
+        return appointmentsRepository.findWithActivitiesByBarberId(currentUser.userId()).stream()
                 .map(appointmentMapper::toDTO)
                 .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<AppointmentsDTO> findForBarbershop(final String ownerEmail) { // ALTERADO
-        // Valida se o requisitante é o dono (pelo email)
-        final Barber owner = findBarberByEmail(ownerEmail);
+    public List<AppointmentsDTO> findForBarbershop(final AuthenticatedUser currentUser) { // ALTERADO
+        // Valida se o requisitante ainda é o dono (estado atual, não o do login)
+        final Barber owner = findBarber(currentUser);
 
         if (!owner.isOwner() || owner.getBarbershop() == null) {
             throw new ReferenceException("Apenas o dono de uma barbearia pode ver a agenda completa.");
@@ -79,28 +116,111 @@ public class AppointmentsServiceImpl implements AppointmentsService {
 
         final UUID barbershopId = owner.getBarbershop().getId();
 
-        return appointmentsRepository.findByBarbershopId(barbershopId).stream()
+        return appointmentsRepository.findWithActivitiesByBarbershopId(barbershopId).stream()
                 .map(appointmentMapper::toDTO)
                 .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<AppointmentsDTO> findForCustomer(final String customerEmail) {
-        // 1. Busca o cliente pelo e-mail do token JWT (padrão do projeto)
-        // Este método já lança NotFoundException se o cliente não existir.
-        final Customer customer = findCustomerByEmail(customerEmail);
-
-        // 2. Busca os agendamentos e mapeia para DTO
-        return appointmentsRepository.findByCustomerId(customer.getId()).stream()
+    public List<AppointmentsDTO> findForCustomer(final AuthenticatedUser currentUser) {
+        // Busca os agendamentos pelo id do cliente que vem do token e mapeia para DTO
+        return appointmentsRepository.findWithActivitiesByCustomerId(currentUser.userId()).stream()
                 .map(appointmentMapper::toDTO)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentPageDTO findPageForBarbershop(final AuthenticatedUser currentUser, final AppointmentFeedQueryDTO query) {
+        final Barber owner = findBarber(currentUser);
+        if (!owner.isOwner() || owner.getBarbershop() == null) {
+            throw new ReferenceException("Apenas o dono de uma barbearia pode ver a agenda completa.");
+        }
+        final UUID barbershopId = owner.getBarbershop().getId();
+
+        final FeedWindow window = feedWindow(query);
+        return toPage(appointmentsRepository.findPageIdsByBarbershopId(barbershopId, window.afterStart(),
+                window.afterId(), window.before(), query.getStatus(), window.limit()), window.pageSize());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentPageDTO findPageForBarber(final AuthenticatedUser currentUser, final AppointmentFeedQueryDTO query) {
+        final FeedWindow window = feedWindow(query);
+        return toPage(appointmentsRepository.findPageIdsByBarberId(currentUser.userId(), window.afterStart(),
+                window.afterId(), window.before(), query.getStatus(), window.limit()), window.pageSize());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentPageDTO findPageForCustomer(final AuthenticatedUser currentUser, final AppointmentFeedQueryDTO query) {
+        final FeedWindow window = feedWindow(query);
+        return toPage(appointmentsRepository.findPageIdsByCustomerId(currentUser.userId(), window.afterStart(),
+                window.afterId(), window.before(), query.getStatus(), window.limit()), window.pageSize());
+    }
+
+    /**
+     * Converte filtros e cursor na posição de início da página. Sem cursor, a página começa em
+     * {@code from}; com cursor, logo depois do último item entregue.
+     */
+    private FeedWindow feedWindow(final AppointmentFeedQueryDTO query) {
+        final int pageSize = query.getLimit() == null
+                ? DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(query.getLimit(), 1), MAX_PAGE_SIZE);
+
+        OffsetDateTime afterStart = query.getFrom() != null ? query.getFrom() : FEED_START;
+        long afterId = Long.MIN_VALUE;
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            try {
+                final String[] parts = new String(Base64.getUrlDecoder().decode(query.getCursor()),
+                        StandardCharsets.UTF_8).split("\\|");
+                afterStart = Instant.parse(parts[0]).atOffset(ZoneOffset.UTC);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new ReferenceException("Cursor de paginação inválido.");
+            }
+        }
+        final OffsetDateTime before = query.getTo() != null ? query.getTo() : FEED_END;
+
+        // Um item a mais para saber se existe uma próxima página
+        return new FeedWindow(afterStart, afterId, before, pageSize, Limit.of(pageSize + 1));
+    }
+
+    private AppointmentPageDTO toPage(final List<Long> ids, final int pageSize) {
+        final boolean hasNext = ids.size() > pageSize;
+        final List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new AppointmentPageDTO(List.of(), null);
+        }
+
+        // Uma query para as entidades da página (com os serviços), reordenadas conforme os ids
+        final Map<Long, Appointments> byId = new HashMap<>();
+        for (Appointments appointment : appointmentsRepository.findWithActivitiesByIdIn(pageIds)) {
+            byId.put(appointment.getId(), appointment);
+        }
+        final List<AppointmentsDTO> items = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            items.add(appointmentMapper.toDTO(byId.get(id)));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            final AppointmentsDTO last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getStartTime().toInstant() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new AppointmentPageDTO(items, nextCursor);
+    }
+
+    private record FeedWindow(OffsetDateTime afterStart, long afterId, OffsetDateTime before,
+                              int pageSize, Limit limit) {
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentsDTO> findAll() {
-        final List<Appointments> appointmentsList = appointmentsRepository.findAll(Sort.by("id"));
+        final List<Appointments> appointmentsList = appointmentsRepository.findAllWithActivities();
         return appointmentsList.stream()
                 .map(appointmentMapper::toDTO)
                 .toList();
@@ -115,16 +235,20 @@ public class AppointmentsServiceImpl implements AppointmentsService {
 
     @Override
     @Transactional
-    public Long create(final AppointmentRequestDTO appointmentsDTO, final String customerEmail) { // ALTERADO
+    public Long create(final AppointmentRequestDTO appointmentsDTO, final AuthenticatedUser currentUser) { // ALTERADO
+        // 0. Trava a agenda do barbeiro até o commit (precisa ser a primeira leitura da transação)
+        final Barber barber = barberBookingGuard.lockBarber(appointmentsDTO.getBarberId());
+
         // 1. Validar e buscar entidades
         final Barbershop barbershop = barbershopRepository.findById(appointmentsDTO.getBarbershopId())
                 .orElseThrow(() -> new NotFoundException("Barbearia não encontrada"));
 
-        // Busca o cliente PELO EMAIL DO TOKEN
-        final Customer customer = findCustomerByEmail(customerEmail);
-
-        final Barber barber = barberRepository.findById(appointmentsDTO.getBarberId())
-                .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
+        // Apenas clientes agendam; um token de barbeiro viraria uma chave estrangeira inválida
+        if (!currentUser.isCustomer()) {
+            throw new NotFoundException("Cliente (usuário autenticado) não encontrado");
+        }
+        final Customer customer = customerRepository.findById(currentUser.userId())
+                .orElseThrow(() -> new NotFoundException("Cliente (usuário autenticado) não encontrado"));
 
         // 2. Validar se o barbeiro pertence à barbearia informada
         if (barber.getBarbershop() == null || !barber.getBarbershop().getId().equals(barbershop.getId())) {
@@ -133,7 +257,7 @@ public class AppointmentsServiceImpl implements AppointmentsService {
 
         // 3. Validar os serviços (atividades) e calcular a duração total do agendamento
         final Set<Activity> activities = new HashSet<>(
-                activityRepository.findAllById(appointmentsDTO.getActivityIds())
+                activityRepository.findAllByIdCached(appointmentsDTO.getActivityIds())
         );
 
         if(activities.size() != appointmentsDTO.getActivityIds().size()) {
@@ -168,23 +292,11 @@ public class AppointmentsServiceImpl implements AppointmentsService {
             }
         }
 
-        // 4b. Verifica se o horário solicitado conflita com outros agendamentos existentes
-        List<Appointments> conflicts = appointmentsRepository.findConflictingAppointments(
-                barber.getId(), startTime, endTime
-        );
-
-        if (!conflicts.isEmpty()) {
-            throw new ReferenceException("Horário indisponível. Já existe um agendamento neste bloco.");
-        }
-
-        // 4c. NOVA VALIDAÇÃO: Verifica conflitos na própria agenda do cliente
-        List<Appointments> customerConflicts = appointmentsRepository.findConflictingAppointmentsForCustomer(
-                customer.getId(), startTime, endTime
-        );
+        // 4b. Horário reservado temporariamente por outro cliente: falha antes de consultar o banco
+        slotHoldRegistry.checkNotHeldByOthers(barber.getId(), customer.getId(), startTime, endTime);
 
-        if (!customerConflicts.isEmpty()) {
-            throw new ReferenceException("Você já possui outro agendamento neste mesmo horário.");
-        }
+        // 4c. Verifica, em uma única query, conflitos na agenda do barbeiro e na do próprio cliente
+        checkConflicts(barber.getId(), customer.getId(), startTime, endTime, null);
 
         // 5. Se todas as validações passaram, cria e salva o novo agendamento
         final Appointments appointments = new Appointments();
@@ -196,17 +308,25 @@ public class AppointmentsServiceImpl implements AppointmentsService {
         appointments.setStatus(AppointmentStatus.SCHEDULED);
         appointments.setActivities(activities); // 'activities' validadas dentro da sua lógica
 
-        return appointmentsRepository.save(appointments).getId();
+        final Long createdId = appointmentsRepository.save(appointments).getId();
+
+        // Atualiza o índice de disponibilidade e, depois dele, consome a reserva temporária do cliente
+        // (ambos aplicados somente após o commit; num rollback a reserva continua valendo)
+        publisher.publishEvent(new AppointmentBooked(barber.getId(), startTime, endTime));
+        publisher.publishEvent(new SlotHoldClaimed(barber.getId(), customer.getId(), startTime, endTime));
+        return createdId;
     }
 
     @Override
     @Transactional
-    public void update(final Long id, final AppointmentRequestDTO appointmentsDTO, final String customerEmail) { // ALTERADO
+    public void update(final Long id, final AppointmentRequestDTO appointmentsDTO, final AuthenticatedUser currentUser) { // ALTERADO
+        // Trava a agenda do novo barbeiro até o commit (precisa ser a primeira leitura da transação)
+        final Barber barber = barberBookingGuard.lockBarber(appointmentsDTO.getBarberId());
+
         final Appointments appointments = appointmentsRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
         // VALIDAÇÃO DE PERMISSÃO
-        final Customer customer = findCustomerByEmail(customerEmail);
-        if (!appointments.getCustomer().getId().equals(customer.getId())) {
+        if (!appointments.getCustomer().getId().equals(currentUser.userId())) {
             throw new ReferenceException("Você só pode alterar seus próprios agendamentos.");
         }
         // Valida se o agendamento pode ser alterado (não pode estar concluído ou cancelado)
@@ -217,15 +337,13 @@ public class AppointmentsServiceImpl implements AppointmentsService {
         // A lógica de validação e cálculo é idêntica à do método de criação
         final Barbershop barbershop = barbershopRepository.findById(appointmentsDTO.getBarbershopId())
                 .orElseThrow(() -> new NotFoundException("Barbearia não encontrada"));
-        final Barber barber = barberRepository.findById(appointmentsDTO.getBarberId())
-                .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
 
         if (barber.getBarbershop() == null || !barber.getBarbershop().getId().equals(barbershop.getId())) {
             throw new ReferenceException("O barbeiro selecionado não pertence a esta barbearia.");
         }
 
         final Set<Activity> activities = new HashSet<>(
-                activityRepository.findAllById(appointmentsDTO.getActivityIds())
+                activityRepository.findAllByIdCached(appointmentsDTO.getActivityIds())
         );
 
         int totalDuration = 0;
@@ -254,36 +372,34 @@ public class AppointmentsServiceImpl implements AppointmentsService {
         }
 
         // Na atualização, a verificação de conflito deve ignorar o próprio agendamento que está sendo alterado.
-        List<Appointments> conflicts = appointmentsRepository.findConflictingAppointments(
-                barber.getId(), startTime, endTime
-        ).stream().filter(a -> !a.getId().equals(id)).collect(Collectors.toList());
+        checkConflicts(barber.getId(), currentUser.userId(), startTime, endTime, id);
 
-        if (!conflicts.isEmpty()) {
-            throw new ReferenceException("Horário indisponível. Já existe um agendamento neste bloco.");
-        }
+        // Guarda o horário antigo para liberá-lo no índice de disponibilidade
+        final AppointmentReleased released = new AppointmentReleased(
+                appointments.getBarber().getId(), appointments.getStartTime(), appointments.getEndTime());
 
         // Atualiza a entidade existente com os novos dados
         appointments.setBarbershop(barbershop); // 'barbershop' validado
         appointments.setBarber(barber); // 'barber' validado
-        appointments.setCustomer(customer); // Define o cliente autenticado
         appointments.setStartTime(startTime); // 'startTime' do DTO
         appointments.setEndTime(endTime); // 'endTime' calculado
         appointments.setStatus(AppointmentStatus.SCHEDULED);
         appointments.setActivities(activities); // 'activities' validadas
 
         appointmentsRepository.save(appointments);
+
+        publisher.publishEvent(released);
+        publisher.publishEvent(new AppointmentBooked(barber.getId(), startTime, endTime));
     }
 
     @Override
     @Transactional
-    public void conclude(final Long id, final String barberEmail) {
+    public void conclude(final Long id, final AuthenticatedUser currentUser) {
         final Appointments appointments = appointmentsRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
-        final Barber barber = findBarberByEmail(barberEmail);
-
         // Apenas o barbeiro associado ao agendamento pode concluí-lo
-        if (!appointments.getBarber().getId().equals(barber.getId())) {
+        if (!currentUser.isBarber() || !appointments.getBarber().getId().equals(currentUser.userId())) {
             throw new ReferenceException("Você não tem permissão para concluir este agendamento.");
         }
 
@@ -297,17 +413,19 @@ public class AppointmentsServiceImpl implements AppointmentsService {
     }
 
     @Override
-    public void delete(final Long id, final String userEmail) { // ALTERADO
+    public void delete(final Long id, final AuthenticatedUser currentUser) { // ALTERADO
         // Implementar lógica de permissão similar ao CANCEL se necessário
         final Appointments appointments = appointmentsRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
-        final Barber barber = barberRepository.findByEmail(userEmail).orElse(null);
+        final Barber barber = currentUser.isBarber() ? barberRepository.findById(currentUser.userId()).orElse(null) : null;
         boolean isOwner = (barber != null && barber.isOwner() && barber.getBarbershop() != null);
 
         // Apenas o dono da barbearia pode deletar fisicamente
         if (isOwner && appointments.getBarbershop().getId().equals(barber.getBarbershop().getId())) {
             appointmentsRepository.deleteById(id);
+            publisher.publishEvent(new AppointmentReleased(
+                    appointments.getBarber().getId(), appointments.getStartTime(), appointments.getEndTime()));
         } else {
             throw new ReferenceException("Apenas o dono da barbearia pode excluir agendamentos fisicamente.");
         }
@@ -315,32 +433,31 @@ public class AppointmentsServiceImpl implements AppointmentsService {
 
     @Override
     @Transactional
-    public void cancel(final Long id, final String userEmail) {
+    public void cancel(final Long id, final AuthenticatedUser currentUser) {
         final Appointments appointments = appointmentsRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
-        final Customer customer = customerRepository.findByEmail(userEmail).orElse(null);
-        final Barber barber = barberRepository.findByEmail(userEmail).orElse(null);
-
-        boolean isOwner = (barber != null && barber.isOwner() && barber.getBarbershop() != null);
-        boolean isCustomer = (customer != null);
+        // Cliente e barbeiro do agendamento são comparados pelo id do token, sem query
+        boolean isCustomer = currentUser.isCustomer();
         // NOVA CONDIÇÃO: é o barbeiro do agendamento
-        boolean isAssignedBarber = (barber != null && appointments.getBarber().getId().equals(barber.getId()));
+        boolean isAssignedBarber = currentUser.isBarber() && appointments.getBarber().getId().equals(currentUser.userId());
 
         boolean canCancel = false;
 
         // REGRA 1: O cliente que agendou pode cancelar
-        if (isCustomer && appointments.getCustomer().getId().equals(customer.getId())) {
-            canCancel = true;
-        }
-        // REGRA 2: O dono da barbearia do agendamento pode cancelar
-        else if (isOwner && appointments.getBarbershop().getId().equals(barber.getBarbershop().getId())) {
+        if (isCustomer && appointments.getCustomer().getId().equals(currentUser.userId())) {
             canCancel = true;
         }
         // REGRA 3 (NOVA): O próprio barbeiro do agendamento pode cancelar
         else if (isAssignedBarber) {
             canCancel = true;
         }
+        // REGRA 2: O dono da barbearia do agendamento pode cancelar (confere o estado atual do barbeiro)
+        else if (currentUser.isBarber()) {
+            final Barber barber = barberRepository.findById(currentUser.userId()).orElse(null);
+            boolean isOwner = (barber != null && barber.isOwner() && barber.getBarbershop() != null);
+            canCancel = isOwner && appointments.getBarbershop().getId().equals(barber.getBarbershop().getId());
+        }
 
 
         if (!canCancel) {
@@ -353,5 +470,8 @@ public class AppointmentsServiceImpl implements AppointmentsService {
 
         appointments.setStatus(AppointmentStatus.CANCELLED);
         appointmentsRepository.save(appointments);
+
+        publisher.publishEvent(new AppointmentReleased(
+                appointments.getBarber().getId(), appointments.getStartTime(), appointments.getEndTime()));
     }
 }
\ No newline at end of file
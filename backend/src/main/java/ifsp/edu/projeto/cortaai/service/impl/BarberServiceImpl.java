@@ -1,8 +1,14 @@
 package ifsp.edu.projeto.cortaai.service.impl;
 
+import ifsp.edu.projeto.cortaai.cache.CatalogCache;
 import ifsp.edu.projeto.cortaai.dto.*;
+import ifsp.edu.projeto.cortaai.events.BarberWorkHoursChanged;
+import ifsp.edu.projeto.cortaai.events.BarbershopCatalogChanged;
 import ifsp.edu.projeto.cortaai.events.BeforeDeleteBarber;
+import ifsp.edu.projeto.cortaai.events.UserTokensRevoked;
+import ifsp.edu.projeto.cortaai.exception.BadRequestException;
 import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.exception.ServiceUnavailableException;
 import ifsp.edu.projeto.cortaai.exception.ReferenceException;
 import ifsp.edu.projeto.cortaai.mapper.ActivityMapper;
 import ifsp.edu.projeto.cortaai.mapper.BarberMapper;
@@ -11,13 +17,24 @@ import ifsp.edu.projeto.cortaai.model.*;
 import org.springframework.transaction.annotation.Transactional;
 import ifsp.edu.projeto.cortaai.model.enums.AppointmentStatus;
 import ifsp.edu.projeto.cortaai.model.enums.JoinRequestStatus;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
 import ifsp.edu.projeto.cortaai.repository.*;
+import ifsp.edu.projeto.cortaai.repository.projection.BarbershopSummary;
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
+import ifsp.edu.projeto.cortaai.repository.projection.HighlightUrl;
 import ifsp.edu.projeto.cortaai.service.BarberService;
 import ifsp.edu.projeto.cortaai.service.JwtTokenService;
+import ifsp.edu.projeto.cortaai.service.RefreshTokenService;
+import ifsp.edu.projeto.cortaai.service.MediaJobService;
 import ifsp.edu.projeto.cortaai.service.StorageService;
+import ifsp.edu.projeto.cortaai.service.availability.AvailabilityCache;
+import ifsp.edu.projeto.cortaai.service.availability.DayOccupancy;
+import ifsp.edu.projeto.cortaai.service.availability.FreeSlotCursor;
+import ifsp.edu.projeto.cortaai.service.availability.SlotHoldRegistry;
+import ifsp.edu.projeto.cortaai.service.availability.SlotOccupancyIndex;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,7 +47,9 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 public class BarberServiceImpl implements BarberService {
@@ -50,10 +69,28 @@ public class BarberServiceImpl implements BarberService {
     private final BarbershopHighlightRepository barbershopHighlightRepository;
     private final AppointmentsRepository appointmentsRepository;
     private final JwtTokenService jwtTokenService;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final AvailabilityCache availabilityCache;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final CatalogCache catalogCache;
+    private final RefreshTokenService refreshTokenService;
+    private final MediaJobService mediaJobService;
+
+    // Menor duração de serviço considerada para marcar um dia como "aberto" no calendário
+    private static final int MIN_SLOT_DURATION_MINUTES = 15;
+
+    // Máximo de dias retornados pela consulta de disponibilidade por intervalo
+    private static final int MAX_RANGE_DAYS = 14;
+
+    // Limite de resultados da busca pelos próximos horários
+    private static final int MAX_NEXT_SLOTS = 50;
 
     @Value("${app.availability.slot-interval-minutes}")
     private int slotIntervalMinutes;
 
+    @Value("${app.availability.next.max-days-ahead:30}")
+    private int nextSlotsMaxDaysAhead;
+
     public BarberServiceImpl(final BarberRepository barberRepository,
                              final BarbershopRepository barbershopRepository,
                              final BarbershopJoinRequestRepository joinRequestRepository,
@@ -66,7 +103,13 @@ public class BarberServiceImpl implements BarberService {
                              final StorageService storageService,
                              final BarbershopHighlightRepository barbershopHighlightRepository,
                              final AppointmentsRepository appointmentsRepository,
-                             final JwtTokenService jwtTokenService) {
+                             final JwtTokenService jwtTokenService,
+                             final SlotOccupancyIndex slotOccupancyIndex,
+                             final AvailabilityCache availabilityCache,
+                             final SlotHoldRegistry slotHoldRegistry,
+                             final CatalogCache catalogCache,
+                             final RefreshTokenService refreshTokenService,
+                             final MediaJobService mediaJobService) {
         this.barberRepository = barberRepository;
         this.barbershopRepository = barbershopRepository;
         this.joinRequestRepository = joinRequestRepository;
@@ -80,25 +123,35 @@ public class BarberServiceImpl implements BarberService {
         this.barbershopHighlightRepository = barbershopHighlightRepository; // INJETADO
         this.appointmentsRepository = appointmentsRepository;
         this.jwtTokenService = jwtTokenService;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.availabilityCache = availabilityCache;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.catalogCache = catalogCache;
+        this.refreshTokenService = refreshTokenService;
+        this.mediaJobService = mediaJobService;
     }
 
     // --- Gestão de Barbeiros (Global) ---
 
-    // MÉTODO AUXILIAR NOVO
-    private Barber findBarberByEmail(String email) {
-        return barberRepository.findByEmail(email)
+    // Busca o barbeiro autenticado pela chave primária (sempre no banco: as checagens de dono dependem do estado atual)
+    private Barber findBarber(AuthenticatedUser currentUser) {
+        return barberRepository.findById(currentUser.userId())
                 .orElseThrow(() -> new NotFoundException("Barbeiro (usuário autenticado) não encontrado"));
     }
 
     @Override
     public List<BarberDTO> findAll() {
-        return barberRepository.findAll(Sort.by("id")).stream()
+        return barberRepository.findAllSummaries().stream()
                 .map(barberMapper::toDTO)
                 .toList();
     }
 
+    /**
+     * Sem transação: o BCrypt (no pool do BoundedPasswordEncoder) pode esperar na fila, e uma transação
+     * aberta prenderia uma conexão do Hikari durante toda a espera. A leitura, a regravação do hash e a
+     * emissão do refresh token usam cada uma a sua conexão só pelo tempo do próprio comando.
+     */
     @Override
-    @Transactional(readOnly = true)
     public LoginResponseDTO login(final LoginDTO loginDTO) { // TIPO DE RETORNO ALTERADO
         final Barber barber = barberRepository.findByEmail(loginDTO.getEmail())
                 .orElseThrow(() -> new NotFoundException("Usuário ou senha inválidos"));
@@ -106,9 +159,48 @@ public class BarberServiceImpl implements BarberService {
         if (!passwordEncoder.matches(loginDTO.getPassword(), barber.getPassword())) {
             throw new NotFoundException("Usuário ou senha inválidos");
         }
+        upgradePasswordHash(barber, loginDTO.getPassword());
+
+        return toLoginResponse(barber);
+    }
+
+    // noRollbackFor: mantém a revogação feita pelo RefreshTokenService ao detectar reuso de token
+    @Override
+    @Transactional(noRollbackFor = NotFoundException.class)
+    public LoginResponseDTO refresh(final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        final UUID barberId = refreshTokenService.consume(refreshTokenRequestDTO.getRefreshToken(), AuthenticatedUser.BARBER);
+        // As claims (dono, barbearia) são montadas a partir do estado atual do barbeiro
+        final Barber barber = barberRepository.findById(barberId)
+                .orElseThrow(() -> new NotFoundException("Refresh token inválido ou expirado"));
+        return toLoginResponse(barber);
+    }
+
+    @Override
+    public void logout(final AuthenticatedUser currentUser, final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        refreshTokenService.logout(currentUser.tokenId(),
+                refreshTokenRequestDTO != null ? refreshTokenRequestDTO.getRefreshToken() : null);
+    }
+
+    /**
+     * Regrava o hash da senha quando ele foi gerado com outro custo ou formato (ver SecurityConfig.passwordEncoder).
+     * A senha em texto só está disponível aqui, no login bem-sucedido. Se o pool de hashing estiver
+     * saturado, o login segue normalmente e a troca fica para o próximo login.
+     */
+    private void upgradePasswordHash(final Barber barber, final String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(barber.getPassword())) {
+            return;
+        }
+        try {
+            barberRepository.updatePasswordHash(barber.getId(), barber.getPassword(), passwordEncoder.encode(rawPassword));
+        } catch (ServiceUnavailableException e) {
+            // Mantém o hash atual
+        }
+    }
 
-        // 1. Gera o token JWT para o barbeiro
+    private LoginResponseDTO toLoginResponse(final Barber barber) {
+        // 1. Gera o token JWT (curto) e o refresh token para o barbeiro
         final String token = jwtTokenService.generateToken(barber);
+        final String refreshToken = refreshTokenService.issue(barber.getId(), AuthenticatedUser.BARBER);
 
         // 2. Mapeia o barbeiro para DTO
         final BarberDTO barberDTO = barberMapper.toDTO(barber);
@@ -116,10 +208,39 @@ public class BarberServiceImpl implements BarberService {
         // 3. Retorna o LoginResponseDTO
         return LoginResponseDTO.builder()
                 .token(token)
+                .refreshToken(refreshToken)
                 .userData(barberDTO)
                 .build();
     }
 
+    /**
+     * Os tokens já emitidos para o barbeiro deixam de valer (após o commit): as claims de dono/barbearia mudaram.
+     * Com o refresh token, o cliente obtém um novo token com as claims atuais.
+     */
+    private void revokeTokens(final Barber barber) {
+        publisher.publishEvent(new UserTokensRevoked(barber.getId()));
+    }
+
+    @Override
+    public DataVersion getBarbersVersion() {
+        return barberRepository.findVersion();
+    }
+
+    @Override
+    public DataVersion getBarberVersion(final UUID id) {
+        return barberRepository.findVersionById(id);
+    }
+
+    @Override
+    public String getBarbershopsEtag(final boolean includeHighlights) {
+        return catalogCache.barbershopsEtag(includeHighlights);
+    }
+
+    @Override
+    public String getCatalogEtag(final UUID barbershopId) {
+        return catalogCache.shopEtag(barbershopId);
+    }
+
     @Override
     public BarberDTO get(final UUID id) {
         return barberRepository.findById(id)
@@ -160,9 +281,9 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional
-    public void update(final String email, final BarberDTO barberDTO) {
-        // Busca o barbeiro pelo e-mail do token
-        final Barber barber = findBarberByEmail(email);
+    public void update(final AuthenticatedUser currentUser, final BarberDTO barberDTO) {
+        // Busca o barbeiro pelo id do token
+        final Barber barber = findBarber(currentUser);
 
         barber.setName(barberDTO.getName());
         barber.setTell(barberDTO.getTell());
@@ -170,23 +291,29 @@ public class BarberServiceImpl implements BarberService {
         barber.setDocumentCPF(barberDTO.getDocumentCPF());
 
         barberRepository.save(barber);
+        catalogChanged(barber.getBarbershop());
     }
 
     @Override
     @Transactional
-    public void delete(final String email) {
-        // Busca o barbeiro pelo e-mail do token
-        final Barber barber = findBarberByEmail(email);
+    public void delete(final AuthenticatedUser currentUser) {
+        // Busca o barbeiro pelo id do token
+        final Barber barber = findBarber(currentUser);
 
         publisher.publishEvent(new BeforeDeleteBarber(barber.getId()));
+        catalogChanged(barber.getBarbershop());
         barberRepository.delete(barber);
+
+        // Encerra as sessões da conta excluída
+        refreshTokenService.revokeAll(barber.getId());
+        revokeTokens(barber);
     }
 
     // --- Gestão de Barbearias (Fluxo 1) ---
     @Override
     @Transactional
-    public BarbershopDTO createBarbershop(final String ownerEmail, final CreateBarbershopDTO createBarbershopDTO, final MultipartFile file) throws IOException { // Assinatura alterada
-        final Barber owner = findBarberByEmail(ownerEmail);
+    public BarbershopDTO createBarbershop(final AuthenticatedUser currentUser, final CreateBarbershopDTO createBarbershopDTO, final MultipartFile file) throws IOException { // Assinatura alterada
+        final Barber owner = findBarber(currentUser);
 
         if (owner.getBarbershop() != null) {
             throw new ReferenceException("Barbeiro já está vinculado a uma barbearia.");
@@ -206,14 +333,16 @@ public class BarberServiceImpl implements BarberService {
         owner.setBarbershop(savedBarbershop);
         owner.setOwner(true);
         barberRepository.save(owner);
+        catalogChanged(savedBarbershop);
+        revokeTokens(owner); // Passa a ser dono: o novo token traz ROLE_OWNER
 
         return barbershopMapper.toDTO(savedBarbershop);
     }
 
     @Override
     @Transactional
-    public BarbershopDTO updateBarbershop(final String ownerEmail, final UpdateBarbershopDTO updateBarbershopDTO) { // ALTERADO
-        final Barber owner = findBarberByEmail(ownerEmail); // ALTERADO
+    public BarbershopDTO updateBarbershop(final AuthenticatedUser currentUser, final UpdateBarbershopDTO updateBarbershopDTO) { // ALTERADO
+        final Barber owner = findBarber(currentUser); // ALTERADO
 
         if (!owner.isOwner() || owner.getBarbershop() == null) {
             throw new ReferenceException("Apenas o dono de uma barbearia pode editar suas informações.");
@@ -229,6 +358,7 @@ public class BarberServiceImpl implements BarberService {
         }
 
         final Barbershop updatedBarbershop = barbershopRepository.save(barbershop);
+        catalogChanged(updatedBarbershop);
         return barbershopMapper.toDTO(updatedBarbershop);
     }
 
@@ -241,17 +371,33 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BarbershopDTO> listBarbershops() {
-        return barbershopRepository.findAll().stream()
-                .map(barbershopMapper::toDTO)
+    public List<BarbershopDTO> listBarbershops(final boolean includeHighlights) {
+        return catalogCache.getBarbershops(includeHighlights, () -> loadBarbershops(includeHighlights));
+    }
+
+    private List<BarbershopDTO> loadBarbershops(final boolean includeHighlights) {
+        // Colunas das barbearias e URLs dos destaques em (no máximo) duas queries, qualquer que seja
+        // o número de barbearias, sem carregar entidades
+        final List<BarbershopSummary> barbershops = barbershopRepository.findAllSummaries();
+        if (barbershops.isEmpty()) {
+            return List.of();
+        }
+        final Map<UUID, List<String>> highlightsByShop = new HashMap<>();
+        if (includeHighlights) {
+            for (HighlightUrl highlight : barbershopHighlightRepository.findAllUrls()) {
+                highlightsByShop.computeIfAbsent(highlight.barbershopId(), id -> new ArrayList<>()).add(highlight.imageUrl());
+            }
+        }
+        return barbershops.stream()
+                .map(shop -> barbershopMapper.toDTO(shop, highlightsByShop.getOrDefault(shop.id(), List.of())))
                 .toList();
     }
 
     @Override
     @Transactional
-    public ActivityDTO updateActivity(final String ownerEmail, final UUID activityId, final UpdateActivityDTO updateActivityDTO) {
+    public ActivityDTO updateActivity(final AuthenticatedUser currentUser, final UUID activityId, final UpdateActivityDTO updateActivityDTO) {
         // 1. Valida se o usuário é o dono e obtém a barbearia
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
 
         // 2. Busca a atividade e valida se ela pertence à barbearia do dono
         final Activity activity = activityRepository.findById(activityId)
@@ -273,14 +419,15 @@ public class BarberServiceImpl implements BarberService {
 
         // 4. Salva e retorna o DTO atualizado
         final Activity savedActivity = activityRepository.save(activity);
+        catalogChanged(barbershop);
         return activityMapper.toDTO(savedActivity);
     }
 
     @Override
     @Transactional
-    public void deleteActivity(final String ownerEmail, final UUID activityId) {
+    public void deleteActivity(final AuthenticatedUser currentUser, final UUID activityId) {
         // 1. Valida se o usuário é o dono e obtém a barbearia
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
 
         // 2. Busca a atividade e valida se ela pertence à barbearia do dono
         final Activity activity = activityRepository.findById(activityId)
@@ -294,15 +441,20 @@ public class BarberServiceImpl implements BarberService {
             throw new ReferenceException("Este serviço não pode ser excluído pois está vinculado a agendamentos futuros.");
         }
 
-        // 4. Deleta a atividade. O JPA cuidará de remover a associação das tabelas ManyToMany (barber_activities).
+        // 4. Remove o serviço das habilidades dos barbeiros pelo lado dono da associação (barber_activities)
+        //    e depois deleta a atividade.
+        for (Barber barber : activity.getBarbers()) {
+            barber.getActivities().remove(activity);
+        }
         activityRepository.delete(activity);
+        catalogChanged(barbershop);
     }
 
     @Override
     @Transactional
-    public void closeBarbershop(final String ownerEmail, final CloseBarbershopRequestDTO closeBarbershopRequestDTO) {
+    public void closeBarbershop(final AuthenticatedUser currentUser, final CloseBarbershopRequestDTO closeBarbershopRequestDTO) {
         // 1. Valida se o usuário é o dono da barbearia
-        final Barber owner = findBarberByEmail(ownerEmail);
+        final Barber owner = findBarber(currentUser);
         if (!owner.isOwner() || owner.getBarbershop() == null) {
             throw new ReferenceException("Apenas o dono de uma barbearia pode realizar esta ação.");
         }
@@ -328,6 +480,7 @@ public class BarberServiceImpl implements BarberService {
                 barber.setBarbershop(null);
                 barber.getActivities().clear(); // Limpa as habilidades do barbeiro
                 barberRepository.save(barber);
+                revokeTokens(barber);
             }
         }
 
@@ -338,9 +491,12 @@ public class BarberServiceImpl implements BarberService {
         // 6. Finalmente, deleta a barbearia.
         owner.setBarbershop(null);
         owner.setOwner(false);
+        owner.getActivities().clear(); // Os serviços da loja foram excluídos acima
         barberRepository.save(owner);
+        revokeTokens(owner);
 
         barbershopRepository.delete(barbershop);
+        catalogChanged(barbershop);
     }
 
     // --- Gestão de Serviços (Fluxo 1) ---
@@ -350,8 +506,8 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional
-    public ActivityDTO createActivities(final String ownerEmail, final CreateActivityDTO createActivityDTO) { // ALTERADO
-        final Barber owner = findBarberByEmail(ownerEmail); // ALTERADO
+    public ActivityDTO createActivities(final AuthenticatedUser currentUser, final CreateActivityDTO createActivityDTO) { // ALTERADO
+        final Barber owner = findBarber(currentUser); // ALTERADO
 
         if (!owner.isOwner() || owner.getBarbershop() == null) {
             throw new ReferenceException("Apenas o dono da barbearia pode criar serviços.");
@@ -361,6 +517,7 @@ public class BarberServiceImpl implements BarberService {
         final Activity activity = activityMapper.toEntity(createActivityDTO);
         activity.setBarbershop(owner.getBarbershop());
         final Activity savedActivity = activityRepository.save(activity);
+        catalogChanged(owner.getBarbershop());
         return activityMapper.toDTO(savedActivity);
     }
 
@@ -369,14 +526,16 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     public List<ActivityDTO> listActivities(final UUID barbershopId) {
-        // Valida se a barbearia existe antes de buscar os serviços
-        if (!barbershopRepository.existsById(barbershopId)) {
-            throw new NotFoundException("Barbearia não encontrada.");
-        }
-        // Busca as atividades e as mapeia para DTOs
-        return activityRepository.findByBarbershopId(barbershopId).stream()
-                .map(activityMapper::toDTO)
-                .toList();
+        return catalogCache.getActivities(barbershopId, () -> {
+            // Valida se a barbearia existe antes de buscar os serviços
+            if (!barbershopRepository.existsById(barbershopId)) {
+                throw new NotFoundException("Barbearia não encontrada.");
+            }
+            // Busca as atividades (só as colunas do DTO) e as mapeia para DTOs
+            return activityRepository.findSummariesByBarbershopId(barbershopId).stream()
+                    .map(activityMapper::toDTO)
+                    .toList();
+        });
     }
 
     /**
@@ -385,20 +544,22 @@ public class BarberServiceImpl implements BarberService {
     @Override
     @Transactional(readOnly = true)
     public List<BarberDTO> listBarbersByBarbershop(final UUID barbershopId) {
-        if (!barbershopRepository.existsById(barbershopId)) {
-            throw new NotFoundException("Barbearia não encontrada.");
-        }
-        return barberRepository.findByBarbershopId(barbershopId).stream()
-                .map(barberMapper::toDTO)
-                .toList();
+        return catalogCache.getBarbers(barbershopId, () -> {
+            if (!barbershopRepository.existsById(barbershopId)) {
+                throw new NotFoundException("Barbearia não encontrada.");
+            }
+            return barberRepository.findSummariesByBarbershopId(barbershopId).stream()
+                    .map(barberMapper::toDTO)
+                    .toList();
+        });
     }
 
     // --- Gestão de Vínculos (Fluxos 2 e 3) ---
 
     @Override
     @Transactional
-    public void requestToJoinBarbershop(final String barberEmail, final String cnpj) { // ALTERADO
-        final Barber barber = findBarberByEmail(barberEmail); // ALTERADO
+    public void requestToJoinBarbershop(final AuthenticatedUser currentUser, final String cnpj) { // ALTERADO
+        final Barber barber = findBarber(currentUser); // ALTERADO
 
         if (barber.getBarbershop() != null) {
             throw new ReferenceException("Barbeiro já está em uma barbearia.");
@@ -421,8 +582,8 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional
-    public void approveJoinRequest(final String ownerEmail, final Long requestId) { // ALTERADO
-        final Barber owner = findBarberByEmail(ownerEmail); // ALTERADO
+    public void approveJoinRequest(final AuthenticatedUser currentUser, final Long requestId) { // ALTERADO
+        final Barber owner = findBarber(currentUser); // ALTERADO
 
         final BarbershopJoinRequest request = joinRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
@@ -442,14 +603,16 @@ public class BarberServiceImpl implements BarberService {
 
         barberToJoin.setBarbershop(request.getBarbershop());
         barberRepository.save(barberToJoin);
+        catalogChanged(request.getBarbershop());
+        revokeTokens(barberToJoin);
 
         joinRequestRepository.delete(request);
     }
 
     @Override
     @Transactional
-    public void freeBarber(final String barberEmail) { // ALTERADO
-        final Barber barber = findBarberByEmail(barberEmail); // ALTERADO
+    public void freeBarber(final AuthenticatedUser currentUser) { // ALTERADO
+        final Barber barber = findBarber(currentUser); // ALTERADO
 
         if (barber.getBarbershop() == null) {
             return;
@@ -458,15 +621,17 @@ public class BarberServiceImpl implements BarberService {
             throw new ReferenceException("O dono não pode sair da própria barbearia (deve excluí-la ou passar a posse).");
         }
 
+        catalogChanged(barber.getBarbershop());
         barber.setBarbershop(null);
         barber.getActivities().clear();
         barberRepository.save(barber);
+        revokeTokens(barber);
     }
 
     @Override
     @Transactional
-    public void removeBarber(final String ownerEmail, final UUID barberIdToRemove) { // ALTERADO
-        final Barber owner = findBarberByEmail(ownerEmail); // ALTERADO
+    public void removeBarber(final AuthenticatedUser currentUser, final UUID barberIdToRemove) { // ALTERADO
+        final Barber owner = findBarber(currentUser); // ALTERADO
 
         final Barber barberToRemove = barberRepository.findById(barberIdToRemove)
                 .orElseThrow(() -> new NotFoundException("Barbeiro a ser removido não encontrado"));
@@ -486,12 +651,14 @@ public class BarberServiceImpl implements BarberService {
         barberToRemove.setBarbershop(null);
         barberToRemove.getActivities().clear();
         barberRepository.save(barberToRemove);
+        catalogChanged(owner.getBarbershop());
+        revokeTokens(barberToRemove);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<JoinRequestDTO> getPendingJoinRequests(final String ownerEmail) { // ALTERADO
-        final Barber owner = findBarberByEmail(ownerEmail); // ALTERADO
+    public List<JoinRequestDTO> getPendingJoinRequests(final AuthenticatedUser currentUser) { // ALTERADO
+        final Barber owner = findBarber(currentUser); // ALTERADO
 
         if (!owner.isOwner() || owner.getBarbershop() == null) {
             throw new ReferenceException("Apenas o dono de uma barbearia pode ver os pedidos pendentes.");
@@ -521,8 +688,8 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<JoinRequestHistoryDTO> getJoinRequestHistory(final String barberEmail) { // ALTERADO para usar email do Principal
-        final Barber barber = findBarberByEmail(barberEmail); // Usa o helper existente para obter o barbeiro autenticado
+    public List<JoinRequestHistoryDTO> getJoinRequestHistory(final AuthenticatedUser currentUser) { // ALTERADO para usar o usuário autenticado
+        final Barber barber = findBarber(currentUser); // Usa o helper existente para obter o barbeiro autenticado
 
         final List<BarbershopJoinRequest> requests = joinRequestRepository.findByBarberId(barber.getId());
 
@@ -543,8 +710,8 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional
-    public void rejectJoinRequest(final String ownerEmail, final Long requestId) { // ALTERADO para usar email do Principal
-        final Barber owner = findBarberByEmail(ownerEmail); // Usa o helper existente para obter o dono autenticado
+    public void rejectJoinRequest(final AuthenticatedUser currentUser, final Long requestId) { // ALTERADO para usar o usuário autenticado
+        final Barber owner = findBarber(currentUser); // Usa o helper existente para obter o dono autenticado
 
         final BarbershopJoinRequest request = joinRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
@@ -569,8 +736,8 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional
-    public void assignActivities(final String barberEmail, final BarberActivityAssignDTO barberActivityAssignDTO) {
-        final Barber barber = findBarberByEmail(barberEmail);
+    public void assignActivities(final AuthenticatedUser currentUser, final BarberActivityAssignDTO barberActivityAssignDTO) {
+        final Barber barber = findBarber(currentUser);
 
         if (barber.getBarbershop() == null) {
             throw new ReferenceException("Barbeiro não está em uma barbearia para vincular serviços.");
@@ -594,9 +761,9 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ActivityDTO> getMyAssignedActivities(String barberEmail) {
-        // Reutiliza o método findBarberByEmail que já trata a exceção Not Found
-        final Barber barber = findBarberByEmail(barberEmail);
+    public List<ActivityDTO> getMyAssignedActivities(AuthenticatedUser currentUser) {
+        // Reutiliza o método findBarber que já trata a exceção Not Found
+        final Barber barber = findBarber(currentUser);
 
         // Mapeia as atividades do barbeiro para DTOs
         return barber.getActivities().stream()
@@ -619,9 +786,9 @@ public class BarberServiceImpl implements BarberService {
 
     @Override
     @Transactional
-    public void setWorkHours(final String email, final BarberWorkHoursDTO workHoursDTO) {
-        // Busca o barbeiro pelo e-mail do token
-        final Barber barber = findBarberByEmail(email);
+    public void setWorkHours(final AuthenticatedUser currentUser, final BarberWorkHoursDTO workHoursDTO) {
+        // Busca o barbeiro pelo id do token
+        final Barber barber = findBarber(currentUser);
 
         if (workHoursDTO.getWorkStartTime().isAfter(workHoursDTO.getWorkEndTime())) {
             throw new ReferenceException("O horário de início do expediente deve ser anterior ao de término.");
@@ -631,6 +798,10 @@ public class BarberServiceImpl implements BarberService {
         barber.setWorkEndTime(workHoursDTO.getWorkEndTime());
 
         barberRepository.save(barber);
+
+        // Invalida a disponibilidade em cache do barbeiro (aplicado somente após o commit)
+        publisher.publishEvent(new BarberWorkHoursChanged(barber.getId()));
+        catalogChanged(barber.getBarbershop());
     }
 
     // --- Métodos de validação ---
@@ -650,31 +821,19 @@ public class BarberServiceImpl implements BarberService {
         return barberRepository.existsByDocumentCPFIgnoreCase(documentCPF);
     }
 
+    // Os uploads de imagem só registram um job de mídia e retornam: o envio ao storage, a troca da URL
+    // e a exclusão da imagem antiga acontecem em segundo plano (MediaJobWorker), fora desta transação.
     @Override
     @Transactional
-    public String updateBarberProfilePhoto(String email, MultipartFile file) throws IOException {
-        final Barber barber = findBarberByEmail(email);
-
-        // 1. Deletar foto antiga
-        String oldPublicId = barber.getImageUrlPublicId();
-        if (oldPublicId != null) {
-            storageService.deleteFile(oldPublicId);
-        }
-
-        // 2. Faz o upload
-        final UploadResultDTO uploadResult = storageService.uploadFile(file, "barber-profiles");
-
-        // 3. Salva
-        barber.setImageUrl(uploadResult.getSecureUrl());
-        barber.setImageUrlPublicId(uploadResult.getPublicId());
-        barberRepository.save(barber);
-        return uploadResult.getSecureUrl();
+    public MediaJobDTO updateBarberProfilePhoto(AuthenticatedUser currentUser, MultipartFile file) throws IOException {
+        final Barber barber = findBarber(currentUser);
+        return mediaJobService.enqueueUpload(MediaTarget.BARBER_PHOTO, barber.getId(), file, currentUser.userId());
     }
 
     @Override
     @Transactional
-    public String updateActivityPhoto(String ownerEmail, UUID activityId, MultipartFile file) throws IOException {
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
+    public MediaJobDTO updateActivityPhoto(AuthenticatedUser currentUser, UUID activityId, MultipartFile file) throws IOException {
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
 
         final Activity activity = activityRepository.findById(activityId)
                 .orElseThrow(() -> new NotFoundException("Serviço (Activity) não encontrado"));
@@ -682,85 +841,35 @@ public class BarberServiceImpl implements BarberService {
             throw new ReferenceException("Este serviço não pertence à sua barbearia.");
         }
 
-        // 1. Deletar foto antiga
-        String oldPublicId = activity.getImageUrlPublicId();
-        if (oldPublicId != null) {
-            storageService.deleteFile(oldPublicId);
-        }
-
-        // 2. Upload
-        final UploadResultDTO uploadResult = storageService.uploadFile(file, "activity-images");
-
-        // 3. Salva
-        activity.setImageUrl(uploadResult.getSecureUrl());
-        activity.setImageUrlPublicId(uploadResult.getPublicId());
-        activityRepository.save(activity);
-        return uploadResult.getSecureUrl();
+        return mediaJobService.enqueueUpload(MediaTarget.ACTIVITY_PHOTO, activity.getId(), file, currentUser.userId());
     }
 
     @Override
     @Transactional
-    public String updateBarbershopLogo(String ownerEmail, MultipartFile file) throws IOException {
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
-
-        // 1. Deletar logo antigo
-        String oldPublicId = barbershop.getLogoUrlPublicId();
-        if (oldPublicId != null) {
-            storageService.deleteFile(oldPublicId);
-        }
-
-        // 2. Upload
-        final UploadResultDTO uploadResult = storageService.uploadFile(file, "barbershop-logos");
-
-        // 3. Salva
-        barbershop.setLogoUrl(uploadResult.getSecureUrl());
-        barbershop.setLogoUrlPublicId(uploadResult.getPublicId());
-        barbershopRepository.save(barbershop);
-        return uploadResult.getSecureUrl();
+    public MediaJobDTO updateBarbershopLogo(AuthenticatedUser currentUser, MultipartFile file) throws IOException {
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
+        return mediaJobService.enqueueUpload(MediaTarget.BARBERSHOP_LOGO, barbershop.getId(), file, currentUser.userId());
     }
 
     @Override
     @Transactional
-    public String updateBarbershopBanner(String ownerEmail, MultipartFile file) throws IOException {
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
-
-        // 1. Deletar banner antigo
-        String oldPublicId = barbershop.getBannerUrlPublicId();
-        if (oldPublicId != null) {
-            storageService.deleteFile(oldPublicId);
-        }
-
-        // 2. Upload
-        final UploadResultDTO uploadResult = storageService.uploadFile(file, "barbershop-banners");
-
-        // 3. Salva
-        barbershop.setBannerUrl(uploadResult.getSecureUrl());
-        barbershop.setBannerUrlPublicId(uploadResult.getPublicId());
-        barbershopRepository.save(barbershop);
-        return uploadResult.getSecureUrl();
+    public MediaJobDTO updateBarbershopBanner(AuthenticatedUser currentUser, MultipartFile file) throws IOException {
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
+        return mediaJobService.enqueueUpload(MediaTarget.BARBERSHOP_BANNER, barbershop.getId(), file, currentUser.userId());
     }
 
     @Override
     @Transactional
-    public String addBarbershopHighlight(String ownerEmail, MultipartFile file) throws IOException {
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
-
-        // 1. Upload (não há foto antiga para deletar aqui)
-        final UploadResultDTO uploadResult = storageService.uploadFile(file, "barbershop-highlights");
-
-        BarbershopHighlight highlight = new BarbershopHighlight();
-        highlight.setBarbershop(barbershop);
-        highlight.setImageUrl(uploadResult.getSecureUrl());
-        highlight.setImageUrlPublicId(uploadResult.getPublicId()); // Salva o Public ID
-
-        barbershopHighlightRepository.save(highlight);
-        return uploadResult.getSecureUrl();
+    public MediaJobDTO addBarbershopHighlight(AuthenticatedUser currentUser, MultipartFile file) throws IOException {
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
+        // O destaque é criado quando o upload terminar
+        return mediaJobService.enqueueUpload(MediaTarget.BARBERSHOP_HIGHLIGHT, barbershop.getId(), file, currentUser.userId());
     }
 
     @Override
     @Transactional
-    public void deleteBarbershopHighlight(String ownerEmail, UUID highlightId) {
-        final Barbershop barbershop = getBarbershopFromOwner(ownerEmail);
+    public void deleteBarbershopHighlight(AuthenticatedUser currentUser, UUID highlightId) {
+        final Barbershop barbershop = getBarbershopFromOwner(currentUser);
 
         final BarbershopHighlight highlight = barbershopHighlightRepository.findById(highlightId)
                 .orElseThrow(() -> new NotFoundException("Imagem de destaque não encontrada"));
@@ -769,29 +878,32 @@ public class BarberServiceImpl implements BarberService {
             throw new ReferenceException("Esta imagem não pertence à sua barbearia.");
         }
 
-        // 1. Deletar a imagem do Cloudinary
-        String publicId = highlight.getImageUrlPublicId();
-        if (publicId != null) {
-            try {
-                storageService.deleteFile(publicId);
-            } catch (IOException e) {
-                // Em um app real, logaríamos o erro, mas não impediríamos a exclusão do banco
-                // logger.error("Falha ao deletar arquivo do Cloudinary: " + publicId, e);
-            }
-        }
+        // 1. Agenda a exclusão da imagem no Cloudinary (feita em segundo plano, com novas tentativas em caso de falha).
+        // Com atraso: a listagem em cache de outras instâncias ainda pode apontar para ela
+        mediaJobService.enqueueReplacedDelete(highlight.getImageUrlPublicId());
 
         // 2. Deletar a entidade do banco
         barbershopHighlightRepository.delete(highlight);
+        catalogChanged(barbershop);
     }
 
 
     // --- NOVO MÉTODO DE APOIO ---
 
+    /**
+     * Invalida as listagens públicas da barbearia (aplicado somente após o commit).
+     */
+    private void catalogChanged(final Barbershop barbershop) {
+        if (barbershop != null) {
+            publisher.publishEvent(new BarbershopCatalogChanged(barbershop.getId()));
+        }
+    }
+
     /**
      * Valida se o ID pertence a um dono e retorna a barbearia dele.
      */
-    private Barbershop getBarbershopFromOwner(String ownerEmail) { // NOVA ASSINATURA
-        final Barber owner = findBarberByEmail(ownerEmail); // Usa o helper existente
+    private Barbershop getBarbershopFromOwner(AuthenticatedUser currentUser) {
+        final Barber owner = findBarber(currentUser); // Usa o helper existente
 
         if (!owner.isOwner() || owner.getBarbershop() == null) {
             throw new ReferenceException("Apenas o dono de uma barbearia pode realizar esta ação.");
@@ -800,9 +912,15 @@ public class BarberServiceImpl implements BarberService {
         return owner.getBarbershop();
     }
 
+    // Sem @Transactional: cada query roda na sua própria transação curta, o que garante que a
+    // carga do índice de ocupação enxergue os commits mais recentes.
     @Override
-    @Transactional(readOnly = true)
     public List<LocalTime> getAvailableSlots(UUID barberId, LocalDate date, int durationInMinutes) {
+        return availabilityCache.getSlots(barberId, date, durationInMinutes,
+                () -> computeAvailableSlots(barberId, date, durationInMinutes));
+    }
+
+    private List<LocalTime> computeAvailableSlots(UUID barberId, LocalDate date, int durationInMinutes) {
         final Barber barber = barberRepository.findById(barberId)
                 .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
 
@@ -810,79 +928,84 @@ public class BarberServiceImpl implements BarberService {
             return new ArrayList<>();
         }
 
-        // --- MUDANÇA 1: Definir o Fuso Horário do Brasil ---
-        final ZoneId zoneId = ZoneId.of("America/Sao_Paulo");
-
-        final LocalTime workStart = barber.getWorkStartTime();
-        final LocalTime workEnd = barber.getWorkEndTime();
-
-        // --- MUDANÇA 2: Ajustar o intervalo de busca para cobrir o dia COMPLETO no fuso correto ---
-        // Se buscarmos apenas "00:00 UTC", perdemos os agendamentos da noite anterior no Brasil
-        // Aqui pegamos o inicio e fim do dia no Brasil e convertemos para o Offset do banco para a busca.
-        OffsetDateTime startOfDay = date.atStartOfDay(zoneId).toOffsetDateTime();
-        OffsetDateTime endOfDay = date.atTime(LocalTime.MAX).atZone(zoneId).toOffsetDateTime();
-
-        List<Appointments> existingAppointments = appointmentsRepository
-                .findByBarberIdAndStartTimeBetween(barberId, startOfDay, endOfDay)
-                .stream()
-                .filter(a -> a.getStatus() != ifsp.edu.projeto.cortaai.model.enums.AppointmentStatus.CANCELLED)
-                .sorted(Comparator.comparing(Appointments::getStartTime))
-                .toList();
+        final DayOccupancy occupancy = slotHoldRegistry.overlay(barberId, date, slotOccupancyIndex.get(barberId, date));
+        return occupancy.availableSlots(barber.getWorkStartTime(), barber.getWorkEndTime(),
+                durationInMinutes, slotIntervalMinutes);
+    }
 
-        List<LocalTime[]> freeBlocks = new ArrayList<>();
-        LocalTime currentPointer = workStart;
+    @Override
+    public Stream<DaySlotsDTO> getAvailabilityRange(UUID barberId, LocalDate from, LocalDate to, int durationInMinutes) {
+        if (to.isBefore(from)) {
+            throw new ReferenceException("A data final deve ser igual ou posterior à data inicial.");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS - 1).isBefore(to)) {
+            throw new ReferenceException("O intervalo de datas deve ter no máximo " + MAX_RANGE_DAYS + " dias.");
+        }
 
-        for (Appointments appointment : existingAppointments) {
-            // --- MUDANÇA 3: Converter o horário do agendamento (UTC) para o horário do Brasil ---
-            // Isso transforma o "12:00 UTC" de volta para "09:00 Brasil" antes de calcular
-            LocalTime appointmentStart = appointment.getStartTime().atZoneSameInstant(zoneId).toLocalTime();
-            LocalTime appointmentEnd = appointment.getEndTime().atZoneSameInstant(zoneId).toLocalTime();
+        final Barber barber = barberRepository.findById(barberId)
+                .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
 
-            // Lógica para evitar erros caso um agendamento comece antes do expediente (casos raros)
-            if (appointmentEnd.isBefore(workStart)) continue;
-            if (appointmentStart.isAfter(workEnd)) break;
+        final long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (barber.getWorkStartTime() == null || barber.getWorkEndTime() == null) {
+            return Stream.iterate(from, date -> date.plusDays(1)).limit(days)
+                    .map(date -> new DaySlotsDTO(date, List.of()));
+        }
 
-            // Ajuste visual: Se o agendamento começa antes do ponteiro atual, ignoramos para evitar overlaps negativos
-            if (appointmentStart.isBefore(currentPointer)) {
-                currentPointer = appointmentEnd.isAfter(currentPointer) ? appointmentEnd : currentPointer;
-                continue;
-            }
+        // Barbeiro e agendamentos são carregados uma única vez (uma query para o intervalo todo);
+        // os horários de cada dia só são calculados quando o dia é consumido
+        final Map<LocalDate, DayOccupancy> occupancyByDay = slotOccupancyIndex.getRange(barberId, from, to);
+        final LocalTime workStart = barber.getWorkStartTime();
+        final LocalTime workEnd = barber.getWorkEndTime();
+        return Stream.iterate(from, date -> date.plusDays(1)).limit(days)
+                .map(date -> new DaySlotsDTO(date, slotHoldRegistry.overlay(barberId, date, occupancyByDay.get(date))
+                        .availableSlots(workStart, workEnd, durationInMinutes, slotIntervalMinutes)));
+    }
 
-            if (currentPointer.isBefore(appointmentStart)) {
-                freeBlocks.add(new LocalTime[]{currentPointer, appointmentStart});
-            }
-            currentPointer = appointmentEnd;
+    @Override
+    public List<SlotCapacityDTO> getSlotCapacities(UUID barberId, LocalDate date, List<Integer> durations) {
+        // Sem durações informadas, vale a menor duração entre os serviços do barbeiro
+        final int minDuration;
+        if (durations != null && !durations.isEmpty()) {
+            minDuration = Collections.min(durations);
+        } else {
+            final Barber barber = barberRepository.findWithActivitiesById(barberId)
+                    .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
+            minDuration = barber.getActivities().stream()
+                    .mapToInt(Activity::getDurationMinutes)
+                    .min()
+                    .orElse(MIN_SLOT_DURATION_MINUTES);
         }
-
-        if (currentPointer.isBefore(workEnd)) {
-            freeBlocks.add(new LocalTime[]{currentPointer, workEnd});
+        if (minDuration <= 0) {
+            throw new ReferenceException("A duração deve ser maior que zero.");
         }
 
-        List<LocalTime> availableSlots = new ArrayList<>();
-        long durationLong = (long) durationInMinutes;
-
-        for (LocalTime[] block : freeBlocks) {
-            LocalTime blockStart = block[0];
-            LocalTime blockEnd = block[1];
-
-            LocalTime potentialSlotStart = blockStart;
+        // A varredura do dia é feita (e guardada em cache) uma única vez; cada duração é só um filtro
+        final List<SlotCapacityDTO> capacities = availabilityCache.getCapacities(barberId, date,
+                () -> computeSlotCapacities(barberId, date));
+        return capacities.stream()
+                .filter(slot -> slot.getMaxFreeMinutes() >= minDuration)
+                .toList();
+    }
 
-            while (potentialSlotStart.isBefore(blockEnd)) {
-                LocalTime potentialSlotEnd = potentialSlotStart.plusMinutes(durationLong);
+    private List<SlotCapacityDTO> computeSlotCapacities(UUID barberId, LocalDate date) {
+        final Barber barber = barberRepository.findById(barberId)
+                .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
 
-                if (!potentialSlotEnd.isAfter(blockEnd) && !potentialSlotEnd.isAfter(workEnd)) {
-                    availableSlots.add(potentialSlotStart);
-                }
-                potentialSlotStart = potentialSlotStart.plusMinutes(slotIntervalMinutes);
-            }
+        if (barber.getWorkStartTime() == null || barber.getWorkEndTime() == null) {
+            return new ArrayList<>();
         }
 
-        return availableSlots;
+        return slotHoldRegistry.overlay(barberId, date, slotOccupancyIndex.get(barberId, date))
+                .slotCapacities(barber.getWorkStartTime(), barber.getWorkEndTime(), slotIntervalMinutes);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<DailyAvailabilityDTO> getMonthlyAvailability(UUID barberId, int year, int month) {
+        return availabilityCache.getMonth(barberId, LocalDate.of(year, month, 1),
+                () -> computeMonthlyAvailability(barberId, year, month));
+    }
+
+    private List<DailyAvailabilityDTO> computeMonthlyAvailability(UUID barberId, int year, int month) {
         final Barber barber = barberRepository.findById(barberId)
                 .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado."));
 
@@ -890,20 +1013,165 @@ public class BarberServiceImpl implements BarberService {
             return new ArrayList<>(); // Não há expediente, logo, não há disponibilidade.
         }
 
-        List<DailyAvailabilityDTO> monthlyAvailability = new ArrayList<>();
-        LocalDate date = LocalDate.of(year, month, 1);
-        int daysInMonth = date.lengthOfMonth();
+        final LocalDate firstDay = LocalDate.of(year, month, 1);
+        final LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
+
+        // Os dias que ainda não estão no índice são carregados com uma única query para o mês inteiro
+        final Map<LocalDate, DayOccupancy> occupancyByDay = slotOccupancyIndex.getRange(barberId, firstDay, lastDay);
 
-        for (int day = 1; day <= daysInMonth; day++) {
-            LocalDate currentDate = LocalDate.of(year, month, day);
+        List<DailyAvailabilityDTO> monthlyAvailability = new ArrayList<>(firstDay.lengthOfMonth());
+        for (LocalDate currentDate = firstDay; !currentDate.isAfter(lastDay); currentDate = currentDate.plusDays(1)) {
             // Verificamos a disponibilidade para a menor duração de serviço possível (ex: 15 min)
             // para saber se o dia está "aberto" para agendamentos.
-            List<LocalTime> slots = getAvailableSlots(barberId, currentDate, 15);
-            monthlyAvailability.add(new DailyAvailabilityDTO(currentDate, !slots.isEmpty()));
+            DayOccupancy occupancy = slotHoldRegistry.overlay(barberId, currentDate, occupancyByDay.get(currentDate));
+            boolean hasAvailability = occupancy.hasSlot(barber.getWorkStartTime(),
+                    barber.getWorkEndTime(), MIN_SLOT_DURATION_MINUTES, slotIntervalMinutes);
+            monthlyAvailability.add(new DailyAvailabilityDTO(currentDate, hasAvailability));
         }
 
         return monthlyAvailability;
     }
 
+    @Override
+    public List<BarberAvailabilityDTO> getBarbershopAvailability(UUID barbershopId, LocalDate date, List<UUID> activityIds) {
+        if (!barbershopRepository.existsById(barbershopId)) {
+            throw new NotFoundException("Barbearia não encontrada.");
+        }
+
+        // 1. Valida os serviços e soma a duração (mesma regra usada na criação do agendamento)
+        final Set<UUID> requestedIds = requireActivityIds(activityIds);
+        final int totalDuration = sumActivityDurations(loadActivities(requestedIds), barbershopId);
+
+        // 2. Barbeiros aptos: com expediente definido e que realizam TODOS os serviços pedidos
+        final List<Barber> qualifiedBarbers = findQualifiedBarbers(barbershopId, requestedIds);
+        if (qualifiedBarbers.isEmpty()) {
+            return List.of();
+        }
+
+        // 3. Uma única query para os agendamentos do dia de todos os barbeiros (os que não estão no índice)
+        final Map<UUID, DayOccupancy> occupancyByBarber = slotOccupancyIndex.getForBarbers(
+                qualifiedBarbers.stream().map(Barber::getId).toList(), date);
+
+        final List<BarberAvailabilityDTO> result = new ArrayList<>(qualifiedBarbers.size());
+        for (Barber barber : qualifiedBarbers) {
+            DayOccupancy occupancy = slotHoldRegistry.overlay(barber.getId(), date, occupancyByBarber.get(barber.getId()));
+            List<LocalTime> slots = occupancy.availableSlots(
+                    barber.getWorkStartTime(), barber.getWorkEndTime(), totalDuration, slotIntervalMinutes);
+            result.add(new BarberAvailabilityDTO(barber.getId(), barber.getName(), barber.getImageUrl(), slots));
+        }
+        return result;
+    }
+
+    @Override
+    public List<NextSlotDTO> findNextAvailableSlots(List<UUID> activityIds, OffsetDateTime after, UUID barbershopId, int limit) {
+        final Set<UUID> requestedIds = requireActivityIds(activityIds);
+        final List<Activity> activities = loadActivities(requestedIds);
+        // Os serviços pertencem a uma barbearia; sem shopId, a busca é feita na barbearia deles
+        final UUID shopId = barbershopId != null ? barbershopId : activities.get(0).getBarbershop().getId();
+        final int totalDuration = sumActivityDurations(activities, shopId);
+
+        final List<Barber> qualifiedBarbers = findQualifiedBarbers(shopId, requestedIds);
+        final int maxResults = Math.min(Math.max(limit, 1), MAX_NEXT_SLOTS);
+        final List<NextSlotDTO> result = new ArrayList<>(maxResults);
+        if (qualifiedBarbers.isEmpty()) {
+            return result;
+        }
+
+        // Nunca sugere horários no passado
+        final ZonedDateTime now = ZonedDateTime.now(SlotOccupancyIndex.ZONE_ID);
+        ZonedDateTime start = after != null ? after.atZoneSameInstant(SlotOccupancyIndex.ZONE_ID) : now;
+        if (start.isBefore(now)) {
+            start = now;
+        }
+        final List<UUID> barberIds = qualifiedBarbers.stream().map(Barber::getId).toList();
+
+        // Os dias são percorridos em ordem; dentro de cada dia, um merge dos cursores de cada barbeiro
+        // entrega os horários em ordem crescente, e a busca para assim que houver resultados suficientes.
+        LocalDate date = start.toLocalDate();
+        int fromMinute = start.getHour() * 60 + start.getMinute() + (start.getSecond() > 0 || start.getNano() > 0 ? 1 : 0);
+        final LocalDate lastDate = date.plusDays(nextSlotsMaxDaysAhead);
+        for (; !date.isAfter(lastDate) && result.size() < maxResults; date = date.plusDays(1), fromMinute = 0) {
+            final Map<UUID, DayOccupancy> occupancyByBarber = slotOccupancyIndex.getForBarbers(barberIds, date);
+
+            final PriorityQueue<BarberCursor> queue = new PriorityQueue<>(
+                    Comparator.comparingInt((BarberCursor c) -> c.cursor().current()).thenComparingInt(BarberCursor::order));
+            for (int i = 0; i < qualifiedBarbers.size(); i++) {
+                Barber barber = qualifiedBarbers.get(i);
+                DayOccupancy occupancy = slotHoldRegistry.overlay(barber.getId(), date, occupancyByBarber.get(barber.getId()));
+                FreeSlotCursor cursor = occupancy.cursor(
+                        barber.getWorkStartTime(), barber.getWorkEndTime(), totalDuration, slotIntervalMinutes, fromMinute);
+                if (cursor.hasCurrent()) {
+                    queue.add(new BarberCursor(barber, i, cursor));
+                }
+            }
+
+            while (!queue.isEmpty() && result.size() < maxResults) {
+                BarberCursor next = queue.poll();
+                int minute = next.cursor().current();
+                OffsetDateTime startTime = date.atTime(minute / 60, minute % 60)
+                        .atZone(SlotOccupancyIndex.ZONE_ID).toOffsetDateTime();
+                result.add(new NextSlotDTO(next.barber().getId(), next.barber().getName(), shopId,
+                        startTime, startTime.plusMinutes(totalDuration)));
+
+                next.cursor().advance();
+                if (next.cursor().hasCurrent()) {
+                    queue.add(next);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Sem serviços a duração seria 0 e todos os horários apareceriam como livres
+    private Set<UUID> requireActivityIds(List<UUID> activityIds) {
+        if (activityIds == null || activityIds.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um serviço.");
+        }
+        return new HashSet<>(activityIds);
+    }
+
+    private List<Activity> loadActivities(Set<UUID> activityIds) {
+        final List<Activity> activities = activityRepository.findAllById(activityIds);
+        if (activities.size() != activityIds.size()) {
+            throw new NotFoundException("Um ou mais serviços não foram encontrados.");
+        }
+        return activities;
+    }
+
+    /**
+     * Valida que todos os serviços pertencem à barbearia e retorna a soma das durações.
+     */
+    private int sumActivityDurations(List<Activity> activities, UUID barbershopId) {
+        int totalDuration = 0;
+        for (Activity activity : activities) {
+            if (!activity.getBarbershop().getId().equals(barbershopId)) {
+                throw new ReferenceException("Serviço " + activity.getActivityName() + " não pertence a esta barbearia.");
+            }
+            totalDuration += activity.getDurationMinutes();
+        }
+        return totalDuration;
+    }
 
-}
\ No newline at end of file
+    /**
+     * Barbeiros da barbearia com expediente definido e que realizam TODOS os serviços pedidos.
+     */
+    private List<Barber> findQualifiedBarbers(UUID barbershopId, Set<UUID> activityIds) {
+        final List<Barber> qualifiedBarbers = new ArrayList<>();
+        for (Barber barber : barberRepository.findWithActivitiesByBarbershopId(barbershopId)) {
+            if (barber.getWorkStartTime() == null || barber.getWorkEndTime() == null) {
+                continue;
+            }
+            Set<UUID> barberActivityIds = new HashSet<>();
+            for (Activity activity : barber.getActivities()) {
+                barberActivityIds.add(activity.getId());
+            }
+            if (barberActivityIds.containsAll(activityIds)) {
+                qualifiedBarbers.add(barber);
+            }
+        }
+        return qualifiedBarbers;
+    }
+
+    private record BarberCursor(Barber barber, int order, FreeSlotCursor cursor) {
+    }
+}
@@ -3,32 +3,72 @@ package ifsp.edu.projeto.cortaai.service.impl;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import ifsp.edu.projeto.cortaai.dto.UploadResultDTO; // NOVO IMPORT
+import ifsp.edu.projeto.cortaai.exception.ServiceUnavailableException;
 import ifsp.edu.projeto.cortaai.service.StorageService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class CloudinaryStorageServiceImpl implements StorageService {
 
     private final Cloudinary cloudinary;
 
+    // Orçamento de bytes em upload ao mesmo tempo (1 permissão = 1 byte)
+    private final Semaphore inFlightBytes;
+    private final int maxInFlightBytes;
+    private final long acquireTimeoutMs;
+
     // Injeta o Bean 'Cloudinary' que criamos no CloudinaryConfig
-    public CloudinaryStorageServiceImpl(Cloudinary cloudinary) {
+    public CloudinaryStorageServiceImpl(Cloudinary cloudinary,
+                                        @Value("${app.storage.upload.max-in-flight:20MB}") DataSize maxInFlight,
+                                        @Value("${app.storage.upload.acquire-timeout-ms:0}") long acquireTimeoutMs) {
         this.cloudinary = cloudinary;
+        this.maxInFlightBytes = (int) Math.min(Integer.MAX_VALUE, maxInFlight.toBytes());
+        this.inFlightBytes = new Semaphore(this.maxInFlightBytes);
+        this.acquireTimeoutMs = acquireTimeoutMs;
     }
 
     @Override
     public UploadResultDTO uploadFile(MultipartFile file, String folder) throws IOException { // RETORNO ALTERADO
+        // O arquivo vai do temporário do multipart para o Cloudinary em blocos, sem ser
+        // carregado inteiro no heap (o SDK envia um File como corpo em streaming)
+        Path tempFile = Files.createTempFile("upload-", ".tmp");
+        try {
+            file.transferTo(tempFile);
+            return uploadFile(tempFile, folder);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
 
+    @Override
+    public UploadResultDTO uploadFile(Path file, String folder) throws IOException {
+        // Um arquivo maior que o orçamento inteiro ocupa o orçamento todo (e sobe sozinho)
+        final int permits = (int) Math.max(1, Math.min(Files.size(file), maxInFlightBytes));
+        acquire(permits);
+        try {
+            return upload(file, folder);
+        } finally {
+            inFlightBytes.release(permits);
+        }
+    }
+
+    private UploadResultDTO upload(Path file, String folder) throws IOException {
         // Gera um nome de arquivo único (public_id) para evitar colisões
         String publicId = folder + "/" + UUID.randomUUID().toString();
 
         // Faz o upload do arquivo
-        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(),
+        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(),
                 ObjectUtils.asMap(
                         "public_id", publicId,
                         "folder", folder
@@ -42,6 +82,23 @@ public class CloudinaryStorageServiceImpl implements StorageService {
         return new UploadResultDTO(generatedPublicId, secureUrl);
     }
 
+    /**
+     * Reserva espaço no orçamento de uploads. Sem espaço (após esperar até acquireTimeoutMs),
+     * responde 503 em vez de deixar os uploads se acumularem na memória.
+     */
+    private void acquire(int permits) {
+        boolean acquired;
+        try {
+            acquired = inFlightBytes.tryAcquire(permits, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ServiceUnavailableException("Muitos uploads em andamento. Tente novamente em instantes.");
+        }
+    }
+
     // NOVO MÉTODO
     @Override
     public void deleteFile(String publicId) throws IOException {
@@ -53,4 +110,4 @@ public class CloudinaryStorageServiceImpl implements StorageService {
         // 'invalidate' true = invalida o cache do CDN
         cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("invalidate", true));
     }
-}
\ No newline at end of file
+}
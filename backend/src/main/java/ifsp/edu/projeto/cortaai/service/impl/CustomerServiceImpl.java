@@ -2,15 +2,21 @@ package ifsp.edu.projeto.cortaai.service.impl;
 
 import ifsp.edu.projeto.cortaai.dto.*;
 import ifsp.edu.projeto.cortaai.events.BeforeDeleteCustomer;
+import ifsp.edu.projeto.cortaai.events.UserTokensRevoked;
 import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.exception.ServiceUnavailableException;
 import ifsp.edu.projeto.cortaai.mapper.CustomerMapper;
 import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
 import ifsp.edu.projeto.cortaai.repository.CustomerRepository;
+import ifsp.edu.projeto.cortaai.repository.projection.DataVersion;
 import ifsp.edu.projeto.cortaai.service.CustomerService;
 import ifsp.edu.projeto.cortaai.service.JwtTokenService;
+import ifsp.edu.projeto.cortaai.service.RefreshTokenService;
+import ifsp.edu.projeto.cortaai.service.MediaJobService;
 import ifsp.edu.projeto.cortaai.service.StorageService;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder; // IMPORTANTE
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,36 +35,46 @@ public class CustomerServiceImpl implements CustomerService {
     private final PasswordEncoder passwordEncoder;
     private final StorageService storageService;
     private final JwtTokenService jwtTokenService; // NOVA DEPENDÊNCIA
+    private final RefreshTokenService refreshTokenService;
+    private final MediaJobService mediaJobService;
 
     public CustomerServiceImpl(final CustomerRepository customerRepository,
                                final ApplicationEventPublisher publisher,
                                final CustomerMapper customerMapper,
                                final PasswordEncoder passwordEncoder,
                                final StorageService storageService,
-                               final JwtTokenService jwtTokenService) { // ADICIONADO AO CONSTRUTOR
+                               final JwtTokenService jwtTokenService, // ADICIONADO AO CONSTRUTOR
+                               final RefreshTokenService refreshTokenService,
+                               final MediaJobService mediaJobService) {
         this.customerRepository = customerRepository;
         this.publisher = publisher;
         this.customerMapper = customerMapper;
         this.passwordEncoder = passwordEncoder;
         this.storageService = storageService;
         this.jwtTokenService = jwtTokenService; // INJETADO
+        this.refreshTokenService = refreshTokenService;
+        this.mediaJobService = mediaJobService;
     }
 
-    private Customer findCustomerByEmail(String email) {
-        return customerRepository.findByEmail(email)
+    private Customer findCustomer(AuthenticatedUser currentUser) {
+        return customerRepository.findById(currentUser.userId())
                 .orElseThrow(() -> new NotFoundException("Cliente (usuário autenticado) não encontrado"));
     }
 
     @Override
     public List<CustomerDTO> findAll() {
-        final List<Customer> customers = customerRepository.findAll(Sort.by("id"));
-        return customers.stream()
+        // Só as colunas do DTO, sem carregar entidades gerenciadas
+        return customerRepository.findAllSummaries().stream()
                 .map(customerMapper::toDTO)
                 .toList();
     }
 
+    /**
+     * Sem transação: o BCrypt (no pool do BoundedPasswordEncoder) pode esperar na fila, e uma transação
+     * aberta prenderia uma conexão do Hikari durante toda a espera. A leitura, a regravação do hash e a
+     * emissão do refresh token usam cada uma a sua conexão só pelo tempo do próprio comando.
+     */
     @Override
-    @Transactional(readOnly = true)
     public LoginResponseDTO login(final LoginDTO loginDTO) { // TIPO DE RETORNO ALTERADO
         final Customer customer = customerRepository.findByEmail(loginDTO.getEmail())
                 .orElseThrow(() -> new NotFoundException("Usuário ou senha inválidos"));
@@ -67,20 +83,69 @@ public class CustomerServiceImpl implements CustomerService {
         if (!passwordEncoder.matches(loginDTO.getPassword(), customer.getPassword())) {
             throw new NotFoundException("Usuário ou senha inválidos");
         }
+        upgradePasswordHash(customer, loginDTO.getPassword());
 
-        // 1. Gera o token JWT para o cliente
+        return toLoginResponse(customer);
+    }
+
+    // noRollbackFor: mantém a revogação feita pelo RefreshTokenService ao detectar reuso de token
+    @Override
+    @Transactional(noRollbackFor = NotFoundException.class)
+    public LoginResponseDTO refresh(final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        final UUID customerId = refreshTokenService.consume(refreshTokenRequestDTO.getRefreshToken(), AuthenticatedUser.CUSTOMER);
+        final Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new NotFoundException("Refresh token inválido ou expirado"));
+        return toLoginResponse(customer);
+    }
+
+    @Override
+    public void logout(final AuthenticatedUser currentUser, final RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        refreshTokenService.logout(currentUser.tokenId(),
+                refreshTokenRequestDTO != null ? refreshTokenRequestDTO.getRefreshToken() : null);
+    }
+
+    /**
+     * Regrava o hash da senha quando ele foi gerado com outro custo ou formato (ver SecurityConfig.passwordEncoder).
+     * A senha em texto só está disponível aqui, no login bem-sucedido. Se o pool de hashing estiver
+     * saturado, o login segue normalmente e a troca fica para o próximo login.
+     */
+    private void upgradePasswordHash(final Customer customer, final String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(customer.getPassword())) {
+            return;
+        }
+        try {
+            customerRepository.updatePasswordHash(customer.getId(), customer.getPassword(), passwordEncoder.encode(rawPassword));
+        } catch (ServiceUnavailableException e) {
+            // Mantém o hash atual
+        }
+    }
+
+    private LoginResponseDTO toLoginResponse(final Customer customer) {
+        // 1. Gera o token JWT (curto) e o refresh token para o cliente
         final String token = jwtTokenService.generateToken(customer);
+        final String refreshToken = refreshTokenService.issue(customer.getId(), AuthenticatedUser.CUSTOMER);
 
         // 2. Mapeia o cliente para DTO
         final CustomerDTO customerDTO = customerMapper.toDTO(customer);
 
-        // 3. Retorna o LoginResponseDTO (com token e dados do usuário)
+        // 3. Retorna o LoginResponseDTO (com tokens e dados do usuário)
         return LoginResponseDTO.builder()
                 .token(token)
+                .refreshToken(refreshToken)
                 .userData(customerDTO)
                 .build();
     }
 
+    @Override
+    public DataVersion getCustomersVersion() {
+        return customerRepository.findVersion();
+    }
+
+    @Override
+    public DataVersion getCustomerVersion(final UUID id) {
+        return customerRepository.findVersionById(id);
+    }
+
     @Override
     public CustomerDTO get(final UUID id) {
         return customerRepository.findById(id)
@@ -115,9 +180,9 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     @Transactional // Adicionada anotação
-    public void update(final String email, final CustomerDTO customerDTO) { // ALTERADO
-        // Busca o cliente pelo e-mail do token
-        final Customer customer = findCustomerByEmail(email);
+    public void update(final AuthenticatedUser currentUser, final CustomerDTO customerDTO) { // ALTERADO
+        // Busca o cliente pelo id do token
+        final Customer customer = findCustomer(currentUser);
 
         customer.setName(customerDTO.getName());
         customer.setTell(customerDTO.getTell());
@@ -133,12 +198,16 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     @Transactional // Adicionada anotação
-    public void delete(final String email) { // ALTERADO
-        // Busca o cliente pelo e-mail do token
-        final Customer customer = findCustomerByEmail(email);
+    public void delete(final AuthenticatedUser currentUser) { // ALTERADO
+        // Busca o cliente pelo id do token
+        final Customer customer = findCustomer(currentUser);
 
         publisher.publishEvent(new BeforeDeleteCustomer(customer.getId()));
         customerRepository.delete(customer);
+
+        // Encerra as sessões da conta excluída
+        refreshTokenService.revokeAll(customer.getId());
+        publisher.publishEvent(new UserTokensRevoked(customer.getId()));
     }
 
     // --- Métodos de validação ---
@@ -158,25 +227,12 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.existsByDocumentCPFIgnoreCase(documentCPF);
     }
 
+    // Só registra o job de mídia: o upload, a troca da URL e a exclusão da foto antiga
+    // acontecem em segundo plano (MediaJobWorker), fora desta transação
     @Override
     @Transactional
-    public String updateProfilePhoto(String email, MultipartFile file) throws IOException {
-        final Customer customer = findCustomerByEmail(email);
-
-        // 1. Deletar foto antiga, se existir
-        String oldPublicId = customer.getImageUrlPublicId();
-        if (oldPublicId != null) {
-            storageService.deleteFile(oldPublicId);
-        }
-
-        // 2. Faz o upload da nova foto
-        final UploadResultDTO uploadResult = storageService.uploadFile(file, "customer-profiles");
-
-        // 3. Salva a URL e o Public ID
-        customer.setImageUrl(uploadResult.getSecureUrl());
-        customer.setImageUrlPublicId(uploadResult.getPublicId());
-        customerRepository.save(customer);
-
-        return uploadResult.getSecureUrl(); // Retorna a nova URL
+    public MediaJobDTO updateProfilePhoto(AuthenticatedUser currentUser, MultipartFile file) throws IOException {
+        final Customer customer = findCustomer(currentUser);
+        return mediaJobService.enqueueUpload(MediaTarget.CUSTOMER_PHOTO, customer.getId(), file, currentUser.userId());
     }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package ifsp.edu.projeto.cortaai.service.impl;
 
 import ifsp.edu.projeto.cortaai.model.Barber;
 import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
 import ifsp.edu.projeto.cortaai.service.JwtTokenService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,19 +15,24 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtTokenServiceImpl implements JwtTokenService {
 
-    @Value("${app.security.jwt.secret-key}")
-    private String secretKeyString;
+    private final long expirationMs;
 
-    @Value("${app.security.jwt.expiration-ms}")
-    private long expirationMs;
+    // Chave e parser são montados uma única vez (ambos são imutáveis e thread-safe)
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKeyString.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenServiceImpl(@Value("${app.security.jwt.secret-key}") final String secretKeyString,
+                               @Value("${app.security.jwt.expiration-ms}") final long expirationMs) {
+        this.expirationMs = expirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(secretKeyString.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     @Override
@@ -34,12 +41,14 @@ public class JwtTokenServiceImpl implements JwtTokenService {
         Instant expiration = now.plusMillis(expirationMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString()) // jti: permite revogar este token individualmente
                 .subject(customer.getEmail())
                 .claim("userId", customer.getId())
-                .claim("userType", "CUSTOMER")
+                .claim("userType", AuthenticatedUser.CUSTOMER)
                 .issuedAt(Date.from(now))
+                .claim("iatMs", now.toEpochMilli()) // O iat padrão tem resolução de segundos (ver TokenRevocationList)
                 .expiration(Date.from(expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -49,24 +58,23 @@ public class JwtTokenServiceImpl implements JwtTokenService {
         Instant expiration = now.plusMillis(expirationMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString()) // jti: permite revogar este token individualmente
                 .subject(barber.getEmail()) // Define o "assunto" como o e-mail (username)
                 .claim("userId", barber.getId())
-                .claim("userType", "BARBER")
+                .claim("userType", AuthenticatedUser.BARBER)
                 .claim("isOwner", barber.isOwner()) // Adicionamos a permissão de "Dono"
+                .claim("barbershopId", barber.getBarbershop() != null ? barber.getBarbershop().getId() : null)
                 .issuedAt(Date.from(now))
+                .claim("iatMs", now.toEpochMilli()) // O iat padrão tem resolução de segundos (ver TokenRevocationList)
                 .expiration(Date.from(expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     @Override
     public Claims validateTokenAndGetClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             // Em um app real, logaríamos o erro
             // e.g., TokenExpiredException, SignatureException
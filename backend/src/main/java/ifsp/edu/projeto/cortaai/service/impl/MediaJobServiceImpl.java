@@ -0,0 +1,123 @@
+package ifsp.edu.projeto.cortaai.service.impl;
+
+import ifsp.edu.projeto.cortaai.dto.MediaJobDTO;
+import ifsp.edu.projeto.cortaai.events.MediaJobQueued;
+import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.model.MediaJob;
+import ifsp.edu.projeto.cortaai.model.MediaJobPayload;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobType;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
+import ifsp.edu.projeto.cortaai.repository.MediaJobRepository;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import ifsp.edu.projeto.cortaai.service.MediaJobService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class MediaJobServiceImpl implements MediaJobService {
+
+    private static final List<MediaJobStatus> UNFINISHED = List.of(MediaJobStatus.PENDING, MediaJobStatus.PROCESSING);
+
+    private final MediaJobRepository mediaJobRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher publisher;
+    private final long replacedDeleteDelayMs;
+
+    public MediaJobServiceImpl(final MediaJobRepository mediaJobRepository,
+                               final EntityManager entityManager,
+                               final ApplicationEventPublisher publisher,
+                               @Value("${app.media.jobs.replaced-delete-delay-ms:600000}") final long replacedDeleteDelayMs) {
+        this.mediaJobRepository = mediaJobRepository;
+        this.entityManager = entityManager;
+        this.publisher = publisher;
+        this.replacedDeleteDelayMs = replacedDeleteDelayMs;
+    }
+
+    @Override
+    @Transactional
+    public MediaJobDTO enqueueUpload(final MediaTarget target, final UUID targetId, final MultipartFile file,
+                                     final UUID requestedBy) throws IOException {
+        // Destaques são independentes entre si; nas demais imagens, o upload mais novo substitui os pendentes
+        if (target != MediaTarget.BARBERSHOP_HIGHLIGHT) {
+            mediaJobRepository.cancelUploads(target, targetId, UNFINISHED, OffsetDateTime.now());
+        }
+
+        final MediaJob job = newJob(MediaJobType.UPLOAD);
+        job.setTarget(target);
+        job.setTargetId(targetId);
+        job.setRequestedBy(requestedBy);
+        mediaJobRepository.save(job);
+
+        // O arquivo vai do multipart para o banco em streaming; o stream precisa estar aberto até o flush
+        try (InputStream content = file.getInputStream()) {
+            final MediaJobPayload payload = new MediaJobPayload();
+            payload.setId(job.getId());
+            payload.setContent(entityManager.unwrap(Session.class).getLobHelper().createBlob(content, file.getSize()));
+            payload.setContentLength(file.getSize());
+            entityManager.persist(payload);
+            entityManager.flush();
+        }
+
+        publisher.publishEvent(new MediaJobQueued(job.getId()));
+        return toDTO(job);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueDelete(final String publicId) {
+        enqueueDelete(publicId, 0);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueReplacedDelete(final String publicId) {
+        enqueueDelete(publicId, replacedDeleteDelayMs);
+    }
+
+    private void enqueueDelete(final String publicId, final long delayMs) {
+        if (publicId == null || publicId.isEmpty()) {
+            return;
+        }
+        final MediaJob job = newJob(MediaJobType.DELETE);
+        job.setPublicId(publicId);
+        job.setNextAttemptAt(job.getNextAttemptAt().plusNanos(delayMs * 1_000_000));
+        mediaJobRepository.save(job);
+        publisher.publishEvent(new MediaJobQueued(job.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaJobDTO get(final AuthenticatedUser currentUser, final UUID jobId) {
+        return mediaJobRepository.findById(jobId)
+                .filter(job -> currentUser.userId().equals(job.getRequestedBy()))
+                .map(this::toDTO)
+                .orElseThrow(() -> new NotFoundException("Job de mídia não encontrado"));
+    }
+
+    private MediaJob newJob(final MediaJobType type) {
+        final MediaJob job = new MediaJob();
+        job.setType(type);
+        job.setStatus(MediaJobStatus.PENDING);
+        job.setAttempts(0);
+        job.setNextAttemptAt(OffsetDateTime.now());
+        return job;
+    }
+
+    private MediaJobDTO toDTO(final MediaJob job) {
+        final String imageUrl = job.getStatus() == MediaJobStatus.DONE ? job.getResultUrl() : null;
+        return new MediaJobDTO(job.getId(), job.getTarget(), job.getTargetId(), job.getStatus(),
+                job.getAttempts(), imageUrl, job.getLastError());
+    }
+}
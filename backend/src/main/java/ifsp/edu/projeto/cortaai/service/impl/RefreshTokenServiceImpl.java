@@ -0,0 +1,116 @@
+package ifsp.edu.projeto.cortaai.service.impl;
+
+import ifsp.edu.projeto.cortaai.events.UserTokensRevoked;
+import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.model.RefreshToken;
+import ifsp.edu.projeto.cortaai.repository.RefreshTokenRepository;
+import ifsp.edu.projeto.cortaai.security.TokenHashes;
+import ifsp.edu.projeto.cortaai.security.TokenRevocationList;
+import ifsp.edu.projeto.cortaai.service.RefreshTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ApplicationEventPublisher publisher;
+    private final TokenRevocationList tokenRevocationList;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${app.security.jwt.refresh-expiration-days:30}")
+    private long refreshExpirationDays;
+
+    public RefreshTokenServiceImpl(final RefreshTokenRepository refreshTokenRepository,
+                                   final ApplicationEventPublisher publisher,
+                                   final TokenRevocationList tokenRevocationList) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.publisher = publisher;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @Override
+    @Transactional
+    public String issue(final UUID userId, final String userType) {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        final String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        final RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(TokenHashes.sha256(value));
+        refreshToken.setUserId(userId);
+        refreshToken.setUserType(userType);
+        refreshToken.setExpiresAt(OffsetDateTime.now().plusDays(refreshExpirationDays));
+        refreshToken.setRevoked(false);
+        refreshTokenRepository.save(refreshToken);
+        return value;
+    }
+
+    // noRollbackFor: a revogação feita ao detectar reuso precisa ser gravada mesmo com a exceção
+    @Override
+    @Transactional(noRollbackFor = NotFoundException.class)
+    public UUID consume(final String value, final String userType) {
+        final String tokenHash = TokenHashes.sha256(value);
+        final RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+                .filter(token -> token.getUserType().equals(userType))
+                .orElseThrow(() -> new NotFoundException("Refresh token inválido ou expirado"));
+
+        if (refreshToken.getExpiresAt().isBefore(OffsetDateTime.now())) {
+            throw new NotFoundException("Refresh token inválido ou expirado");
+        }
+
+        // Rotação: cada refresh token vale uma única vez. A marcação é um UPDATE condicional (e não
+        // ler-verificar-gravar), para que duas requisições simultâneas com o mesmo token não passem as duas.
+        if (refreshTokenRepository.revokeIfActive(tokenHash) == 0) {
+            // Um token já usado voltou a aparecer: provável vazamento. Encerra todas as sessões do usuário.
+            refreshTokenRepository.revokeAllByUserId(refreshToken.getUserId());
+            publisher.publishEvent(new UserTokensRevoked(refreshToken.getUserId()));
+            throw new NotFoundException("Refresh token inválido ou expirado");
+        }
+        return refreshToken.getUserId();
+    }
+
+    @Override
+    @Transactional
+    public void revoke(final String value) {
+        refreshTokenRepository.findByTokenHash(TokenHashes.sha256(value)).ifPresent(refreshToken -> {
+            refreshToken.setRevoked(true);
+            refreshTokenRepository.save(refreshToken);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(final UUID userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public void logout(final UUID accessTokenId, final String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            revoke(refreshToken);
+        }
+        // O access token não depende de nada gravado no banco, então pode ser revogado na hora
+        if (accessTokenId != null) {
+            tokenRevocationList.revokeToken(accessTokenId);
+        }
+    }
+
+    // Remove periodicamente os refresh tokens já expirados
+    @Scheduled(fixedDelayString = "${app.security.jwt.refresh-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,93 @@
+package ifsp.edu.projeto.cortaai.service.impl;
+
+import ifsp.edu.projeto.cortaai.dto.SlotHoldDTO;
+import ifsp.edu.projeto.cortaai.dto.SlotHoldRequestDTO;
+import ifsp.edu.projeto.cortaai.exception.NotFoundException;
+import ifsp.edu.projeto.cortaai.exception.ReferenceException;
+import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.repository.ActivityRepository;
+import ifsp.edu.projeto.cortaai.repository.BarberRepository;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import ifsp.edu.projeto.cortaai.service.SlotHoldService;
+import ifsp.edu.projeto.cortaai.service.availability.SlotHold;
+import ifsp.edu.projeto.cortaai.service.availability.SlotHoldRegistry;
+import ifsp.edu.projeto.cortaai.service.availability.SlotOccupancyIndex;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    private final BarberRepository barberRepository;
+    private final ActivityRepository activityRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    public SlotHoldServiceImpl(final BarberRepository barberRepository,
+                               final ActivityRepository activityRepository,
+                               final SlotOccupancyIndex slotOccupancyIndex,
+                               final SlotHoldRegistry slotHoldRegistry) {
+        this.barberRepository = barberRepository;
+        this.activityRepository = activityRepository;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.slotHoldRegistry = slotHoldRegistry;
+    }
+
+    // Sem @Transactional pelo mesmo motivo das consultas de disponibilidade: a verificação no
+    // índice de ocupação precisa enxergar os commits mais recentes.
+    @Override
+    public SlotHoldDTO create(final UUID barberId, final SlotHoldRequestDTO request, final AuthenticatedUser currentUser) {
+        // A reserva só guarda o id do cliente, então não é preciso buscá-lo no banco
+        final UUID customerId = currentUser.userId();
+
+        final Barber barber = barberRepository.findWithActivitiesById(barberId)
+                .orElseThrow(() -> new NotFoundException("Barbeiro não encontrado"));
+        if (barber.getBarbershop() == null || barber.getWorkStartTime() == null || barber.getWorkEndTime() == null) {
+            throw new ReferenceException("Este barbeiro não está disponível para agendamentos.");
+        }
+
+        // Mesmas validações de serviços e expediente da criação do agendamento
+        final List<Activity> activities = activityRepository.findAllByIdCached(request.getActivityIds());
+        if (activities.size() != new HashSet<>(request.getActivityIds()).size()) {
+            throw new NotFoundException("Um ou mais serviços não foram encontrados.");
+        }
+        int totalDuration = 0;
+        for (Activity activity : activities) {
+            if (!activity.getBarbershop().getId().equals(barber.getBarbershop().getId())) {
+                throw new ReferenceException("Serviço " + activity.getActivityName() + " não pertence a esta barbearia.");
+            }
+            if (!barber.getActivities().contains(activity)) {
+                throw new ReferenceException("Barbeiro " + barber.getName() + " não executa o serviço " + activity.getActivityName() + ".");
+            }
+            totalDuration += activity.getDurationMinutes();
+        }
+
+        final OffsetDateTime startTime = request.getStartTime();
+        final OffsetDateTime endTime = startTime.plusMinutes(totalDuration);
+
+        LocalTime holdStartTime = startTime.toLocalTime();
+        LocalTime holdEndTime = endTime.toLocalTime();
+        if (holdStartTime.isBefore(barber.getWorkStartTime()) || holdEndTime.isAfter(barber.getWorkEndTime())) {
+            throw new ReferenceException("O horário está fora do expediente do barbeiro, que é das " +
+                    barber.getWorkStartTime() + " às " + barber.getWorkEndTime() + ".");
+        }
+
+        if (!slotOccupancyIndex.isFree(barberId, startTime, endTime)) {
+            throw new ReferenceException("Horário indisponível. Já existe um agendamento neste bloco.");
+        }
+
+        final SlotHold hold = slotHoldRegistry.hold(barberId, customerId, startTime, endTime);
+        return new SlotHoldDTO(hold.id(), hold.barberId(), hold.startTime(), hold.endTime(), hold.expiresAt());
+    }
+
+    @Override
+    public void release(final UUID barberId, final UUID holdId, final AuthenticatedUser currentUser) {
+        slotHoldRegistry.release(holdId, currentUser.userId());
+    }
+}
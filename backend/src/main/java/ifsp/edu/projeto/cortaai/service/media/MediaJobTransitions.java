@@ -0,0 +1,290 @@
+package ifsp.edu.projeto.cortaai.service.media;
+
+import ifsp.edu.projeto.cortaai.dto.UploadResultDTO;
+import ifsp.edu.projeto.cortaai.events.BarbershopCatalogChanged;
+import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.model.Barbershop;
+import ifsp.edu.projeto.cortaai.model.BarbershopHighlight;
+import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.model.MediaJob;
+import ifsp.edu.projeto.cortaai.model.MediaJobPayload;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobStatus;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobType;
+import ifsp.edu.projeto.cortaai.model.enums.MediaTarget;
+import ifsp.edu.projeto.cortaai.repository.ActivityRepository;
+import ifsp.edu.projeto.cortaai.repository.BarberRepository;
+import ifsp.edu.projeto.cortaai.repository.BarbershopHighlightRepository;
+import ifsp.edu.projeto.cortaai.repository.BarbershopRepository;
+import ifsp.edu.projeto.cortaai.repository.CustomerRepository;
+import ifsp.edu.projeto.cortaai.repository.MediaJobPayloadRepository;
+import ifsp.edu.projeto.cortaai.repository.MediaJobRepository;
+import ifsp.edu.projeto.cortaai.service.MediaJobService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mudanças de estado dos jobs de mídia, cada uma em sua própria transação curta. As chamadas ao
+ * storage ficam no MediaJobWorker, fora de qualquer transação.
+ */
+@Component
+public class MediaJobTransitions {
+
+    private static final List<MediaJobStatus> CLAIMABLE = List.of(MediaJobStatus.PENDING, MediaJobStatus.PROCESSING);
+    private static final List<MediaJobStatus> FINISHED =
+            List.of(MediaJobStatus.DONE, MediaJobStatus.FAILED, MediaJobStatus.CANCELLED);
+
+    // Teto do intervalo entre tentativas
+    private static final long MAX_BACKOFF_MS = 60 * 60 * 1000L;
+
+    private final MediaJobRepository mediaJobRepository;
+    private final MediaJobPayloadRepository mediaJobPayloadRepository;
+    private final MediaJobService mediaJobService;
+    private final CustomerRepository customerRepository;
+    private final BarberRepository barberRepository;
+    private final ActivityRepository activityRepository;
+    private final BarbershopRepository barbershopRepository;
+    private final BarbershopHighlightRepository barbershopHighlightRepository;
+    private final ApplicationEventPublisher publisher;
+
+    public MediaJobTransitions(final MediaJobRepository mediaJobRepository,
+                               final MediaJobPayloadRepository mediaJobPayloadRepository,
+                               final MediaJobService mediaJobService,
+                               final CustomerRepository customerRepository,
+                               final BarberRepository barberRepository,
+                               final ActivityRepository activityRepository,
+                               final BarbershopRepository barbershopRepository,
+                               final BarbershopHighlightRepository barbershopHighlightRepository,
+                               final ApplicationEventPublisher publisher) {
+        this.mediaJobRepository = mediaJobRepository;
+        this.mediaJobPayloadRepository = mediaJobPayloadRepository;
+        this.mediaJobService = mediaJobService;
+        this.customerRepository = customerRepository;
+        this.barberRepository = barberRepository;
+        this.activityRepository = activityRepository;
+        this.barbershopRepository = barbershopRepository;
+        this.barbershopHighlightRepository = barbershopHighlightRepository;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Reserva até {@code limit} jobs prontos para este worker. A reserva vale por {@code leaseMs}:
+     * se a instância cair no meio do processamento, o job volta a ficar disponível depois disso.
+     */
+    @Transactional
+    public List<ClaimedMediaJob> claimDue(final int limit, final long leaseMs) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        return mediaJobRepository.findDueForUpdate(CLAIMABLE, now, PageRequest.of(0, limit)).stream()
+                .map(job -> {
+                    job.setStatus(MediaJobStatus.PROCESSING);
+                    job.setAttempts(job.getAttempts() + 1);
+                    job.setNextAttemptAt(now.plusNanos(leaseMs * 1_000_000));
+                    return new ClaimedMediaJob(job.getId(), job.getType(), job.getTarget(), job.getPublicId());
+                })
+                .toList();
+    }
+
+    /**
+     * Copia o arquivo do job para {@code destination}, em streaming.
+     *
+     * @return false se o arquivo não existe mais
+     */
+    @Transactional(readOnly = true)
+    public boolean copyPayload(final UUID jobId, final Path destination) throws IOException {
+        final MediaJobPayload payload = mediaJobPayloadRepository.findById(jobId).orElse(null);
+        if (payload == null) {
+            return false;
+        }
+        try (InputStream content = payload.getContent().getBinaryStream()) {
+            Files.copy(content, destination, StandardCopyOption.REPLACE_EXISTING);
+        } catch (SQLException e) {
+            throw new IOException("Falha ao ler o arquivo do job " + jobId, e);
+        }
+        return true;
+    }
+
+    /**
+     * Guarda o resultado do upload no job, para que uma nova tentativa não reenvie o arquivo.
+     * Se outro worker já tiver enviado (reserva vencida), a cópia duplicada é descartada.
+     */
+    @Transactional
+    public void recordUploaded(final UUID jobId, final UploadResultDTO uploadResult) {
+        final MediaJob job = mediaJobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (job == null || job.getPublicId() != null) {
+            mediaJobService.enqueueDelete(uploadResult.getPublicId());
+            return;
+        }
+        job.setPublicId(uploadResult.getPublicId());
+        job.setResultUrl(uploadResult.getSecureUrl());
+    }
+
+    /**
+     * Aplica a imagem enviada à entidade de destino e agenda a exclusão da imagem que ela substituiu
+     * (com atraso: as outras instâncias ainda podem estar servindo a URL antiga).
+     * Se o job foi cancelado por um upload mais novo (ou a entidade não existe mais), a imagem enviada é descartada.
+     */
+    @Transactional
+    public void completeUpload(final UUID jobId) {
+        final MediaJob job = mediaJobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (job == null || job.getStatus() == MediaJobStatus.DONE || job.getStatus() == MediaJobStatus.FAILED) {
+            return; // Já finalizado por outro worker
+        }
+        if (job.getStatus() == MediaJobStatus.CANCELLED || !applyUpload(job)) {
+            mediaJobService.enqueueDelete(job.getPublicId());
+            job.setStatus(MediaJobStatus.CANCELLED);
+        } else {
+            job.setStatus(MediaJobStatus.DONE);
+            job.setLastError(null);
+        }
+        mediaJobPayloadRepository.deleteByJobId(jobId);
+    }
+
+    @Transactional
+    public void completeDelete(final UUID jobId) {
+        mediaJobRepository.findByIdForUpdate(jobId).ifPresent(job -> {
+            job.setStatus(MediaJobStatus.DONE);
+            job.setLastError(null);
+        });
+    }
+
+    /**
+     * Registra a falha de uma tentativa: reagenda com backoff exponencial ou, esgotadas as tentativas,
+     * marca o job como FAILED (a entidade mantém a imagem anterior).
+     */
+    @Transactional
+    public void fail(final UUID jobId, final String error, final int maxAttempts, final long backoffMs) {
+        final MediaJob job = mediaJobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (job == null || job.getStatus() != MediaJobStatus.PROCESSING) {
+            return;
+        }
+        job.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 500)));
+
+        if (job.getAttempts() >= maxAttempts) {
+            job.setStatus(MediaJobStatus.FAILED);
+            if (job.getType() == MediaJobType.UPLOAD) {
+                // Enviado, mas nunca aplicado
+                mediaJobService.enqueueDelete(job.getPublicId());
+                mediaJobPayloadRepository.deleteByJobId(jobId);
+            }
+            return;
+        }
+        final long delayMs = Math.min(MAX_BACKOFF_MS, backoffMs << Math.min(job.getAttempts() - 1, 20));
+        job.setStatus(MediaJobStatus.PENDING);
+        job.setNextAttemptAt(OffsetDateTime.now().plusNanos(delayMs * 1_000_000));
+    }
+
+    /**
+     * Remove os jobs finalizados há mais de {@code cutoff} e os arquivos que ainda restarem de jobs finalizados.
+     */
+    @Transactional
+    public void purgeFinished(final OffsetDateTime cutoff) {
+        mediaJobPayloadRepository.deleteByJobStatusIn(FINISHED);
+        mediaJobRepository.deleteFinishedBefore(FINISHED, cutoff);
+    }
+
+    /**
+     * @return false se a entidade de destino não existe mais
+     */
+    private boolean applyUpload(final MediaJob job) {
+        final String url = job.getResultUrl();
+        final String publicId = job.getPublicId();
+        final UUID targetId = job.getTargetId();
+
+        switch (job.getTarget()) {
+            case CUSTOMER_PHOTO -> {
+                final Customer customer = customerRepository.findById(targetId).orElse(null);
+                if (customer == null) {
+                    return false;
+                }
+                mediaJobService.enqueueReplacedDelete(customer.getImageUrlPublicId());
+                customer.setImageUrl(url);
+                customer.setImageUrlPublicId(publicId);
+                customerRepository.save(customer);
+            }
+            case BARBER_PHOTO -> {
+                final Barber barber = barberRepository.findById(targetId).orElse(null);
+                if (barber == null) {
+                    return false;
+                }
+                mediaJobService.enqueueReplacedDelete(barber.getImageUrlPublicId());
+                barber.setImageUrl(url);
+                barber.setImageUrlPublicId(publicId);
+                barberRepository.save(barber);
+                catalogChanged(barber.getBarbershop());
+            }
+            case ACTIVITY_PHOTO -> {
+                final Activity activity = activityRepository.findById(targetId).orElse(null);
+                if (activity == null) {
+                    return false;
+                }
+                mediaJobService.enqueueReplacedDelete(activity.getImageUrlPublicId());
+                activity.setImageUrl(url);
+                activity.setImageUrlPublicId(publicId);
+                activityRepository.save(activity);
+                catalogChanged(activity.getBarbershop());
+            }
+            case BARBERSHOP_LOGO -> {
+                final Barbershop barbershop = barbershopRepository.findById(targetId).orElse(null);
+                if (barbershop == null) {
+                    return false;
+                }
+                mediaJobService.enqueueReplacedDelete(barbershop.getLogoUrlPublicId());
+                barbershop.setLogoUrl(url);
+                barbershop.setLogoUrlPublicId(publicId);
+                barbershopRepository.save(barbershop);
+                catalogChanged(barbershop);
+            }
+            case BARBERSHOP_BANNER -> {
+                final Barbershop barbershop = barbershopRepository.findById(targetId).orElse(null);
+                if (barbershop == null) {
+                    return false;
+                }
+                mediaJobService.enqueueReplacedDelete(barbershop.getBannerUrlPublicId());
+                barbershop.setBannerUrl(url);
+                barbershop.setBannerUrlPublicId(publicId);
+                barbershopRepository.save(barbershop);
+                catalogChanged(barbershop);
+            }
+            case BARBERSHOP_HIGHLIGHT -> {
+                final Barbershop barbershop = barbershopRepository.findById(targetId).orElse(null);
+                if (barbershop == null) {
+                    return false;
+                }
+                final BarbershopHighlight highlight = new BarbershopHighlight();
+                highlight.setBarbershop(barbershop);
+                highlight.setImageUrl(url);
+                highlight.setImageUrlPublicId(publicId);
+                barbershopHighlightRepository.save(highlight);
+                catalogChanged(barbershop);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invalida as listagens públicas da barbearia (aplicado somente após o commit).
+     */
+    private void catalogChanged(final Barbershop barbershop) {
+        if (barbershop != null) {
+            publisher.publishEvent(new BarbershopCatalogChanged(barbershop.getId()));
+        }
+    }
+
+    /**
+     * Dados de um job reservado, usados pelo worker fora da transação.
+     */
+    public record ClaimedMediaJob(UUID id, MediaJobType type, MediaTarget target, String publicId) {
+    }
+}
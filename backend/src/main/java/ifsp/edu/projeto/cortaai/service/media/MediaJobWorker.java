@@ -0,0 +1,197 @@
+package ifsp.edu.projeto.cortaai.service.media;
+
+import ifsp.edu.projeto.cortaai.dto.UploadResultDTO;
+import ifsp.edu.projeto.cortaai.model.enums.MediaJobType;
+import ifsp.edu.projeto.cortaai.service.StorageService;
+import ifsp.edu.projeto.cortaai.service.media.MediaJobTransitions.ClaimedMediaJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Executa os jobs de mídia em um pool próprio: envia a imagem ao storage, aplica a nova URL
+ * (MediaJobTransitions) e remove as imagens substituídas.
+ *
+ * A fila é a tabela media_jobs: os jobs são buscados periodicamente e também logo após o commit de um
+ * job novo (MediaJobListener). Como o estado fica no banco, jobs interrompidos por um restart são
+ * retomados quando a reserva vence, por esta ou por outra instância.
+ *
+ * Na Lambda não há threads de fundo confiáveis: o ambiente fica congelado entre as invocações, então o
+ * pool, o @Scheduled e o wakeUp() pós-commit parariam no meio (com o job reservado até a reserva vencer).
+ * Lá os workers ficam desligados (StreamLambdaHandler) e a fila é processada por drain(), chamado por
+ * uma invocação agendada (EventBridge).
+ */
+@Component
+public class MediaJobWorker {
+
+    private final MediaJobTransitions transitions;
+    private final StorageService storageService;
+
+    private final boolean enabled;
+    private final int threads;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long retentionHours;
+    private final long drainReserveMs;
+
+    private final ExecutorService workers;
+    // Busca na fila fora da thread de quem acordou o worker (ex: thread da requisição após o commit)
+    private final ExecutorService dispatcher;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    public MediaJobWorker(final MediaJobTransitions transitions,
+                          final StorageService storageService,
+                          @Value("${app.media.jobs.enabled:true}") final boolean enabled,
+                          @Value("${app.media.jobs.threads:2}") final int threads,
+                          @Value("${app.media.jobs.lease-ms:300000}") final long leaseMs,
+                          @Value("${app.media.jobs.max-attempts:5}") final int maxAttempts,
+                          @Value("${app.media.jobs.backoff-ms:10000}") final long backoffMs,
+                          @Value("${app.media.jobs.retention-hours:72}") final long retentionHours,
+                          @Value("${app.media.jobs.drain-reserve-ms:20000}") final long drainReserveMs) {
+        this.transitions = transitions;
+        this.storageService = storageService;
+        this.enabled = enabled;
+        this.threads = threads;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.retentionHours = retentionHours;
+        this.drainReserveMs = drainReserveMs;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "media-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "media-job-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pede uma busca na fila sem esperar o próximo ciclo. Chamadas repetidas antes da busca são agrupadas.
+     */
+    public void wakeUp() {
+        if (enabled && wakeUpPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                wakeUpPending.set(false);
+                poll();
+            });
+        }
+    }
+
+    /**
+     * Reserva tantos jobs quantas threads livres houver e os entrega ao pool.
+     */
+    @Scheduled(fixedDelayString = "${app.media.jobs.poll-interval-ms:5000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        final int free = threads - running.get();
+        if (free <= 0) {
+            return;
+        }
+        final List<ClaimedMediaJob> claimed = transitions.claimDue(free, leaseMs);
+        for (ClaimedMediaJob job : claimed) {
+            running.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+        // Pegou o máximo: provavelmente há mais jobs na fila
+        if (claimed.size() == free) {
+            wakeUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.media.jobs.purge-interval-ms:3600000}")
+    public void purgeFinished() {
+        if (enabled) {
+            transitions.purgeFinished(OffsetDateTime.now().minusHours(retentionHours));
+        }
+    }
+
+    /**
+     * Processa os jobs devidos na thread de quem chama, um por vez, até a fila esvaziar ou sobrar menos
+     * de drain-reserve-ms. Funciona mesmo com os workers desligados (é o modo da Lambda). Cada job só é
+     * reservado quando vai ser processado, para a reserva não correr com o job parado esperando a vez.
+     *
+     * @param remainingMs tempo restante da invocação (ex: Context.getRemainingTimeInMillis)
+     * @return quantidade de jobs processados
+     */
+    public int drain(final LongSupplier remainingMs) {
+        int processed = 0;
+        while (remainingMs.getAsLong() > drainReserveMs) {
+            final List<ClaimedMediaJob> claimed = transitions.claimDue(1, leaseMs);
+            if (claimed.isEmpty()) {
+                break;
+            }
+            process(claimed.get(0));
+            processed++;
+        }
+        if (remainingMs.getAsLong() > drainReserveMs) {
+            transitions.purgeFinished(OffsetDateTime.now().minusHours(retentionHours));
+        }
+        return processed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Jobs interrompidos continuam PROCESSING no banco e são retomados quando a reserva vencer
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void process(ClaimedMediaJob job) {
+        try {
+            if (job.type() == MediaJobType.DELETE) {
+                storageService.deleteFile(job.publicId());
+                transitions.completeDelete(job.id());
+            } else {
+                upload(job);
+                transitions.completeUpload(job.id());
+            }
+        } catch (Exception e) {
+            transitions.fail(job.id(), e.getClass().getSimpleName() + ": " + e.getMessage(), maxAttempts, backoffMs);
+        }
+        // Libera uma thread: busca o próximo job sem esperar o ciclo
+        wakeUp();
+    }
+
+    private void upload(ClaimedMediaJob job) throws Exception {
+        if (job.publicId() != null) {
+            return; // Já enviado em uma tentativa anterior; falta só aplicar
+        }
+        final Path tempFile = Files.createTempFile("media-job-", ".tmp");
+        try {
+            if (!transitions.copyPayload(job.id(), tempFile)) {
+                throw new IllegalStateException("Arquivo do job não encontrado");
+            }
+            final UploadResultDTO uploadResult = storageService.uploadFile(tempFile, job.target().getFolder());
+            transitions.recordUploaded(job.id(), uploadResult);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
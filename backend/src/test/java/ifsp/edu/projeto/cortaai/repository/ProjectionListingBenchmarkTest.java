@@ -0,0 +1,166 @@
+package ifsp.edu.projeto.cortaai.repository;
+
+import ifsp.edu.projeto.cortaai.dto.ActivityDTO;
+import ifsp.edu.projeto.cortaai.dto.BarberDTO;
+import ifsp.edu.projeto.cortaai.dto.CustomerDTO;
+import ifsp.edu.projeto.cortaai.mapper.ActivityMapper;
+import ifsp.edu.projeto.cortaai.mapper.BarberMapper;
+import ifsp.edu.projeto.cortaai.mapper.CustomerMapper;
+import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.model.Barbershop;
+import ifsp.edu.projeto.cortaai.support.IntegrationTestSupport;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara, nas listagens públicas, o caminho antigo (entidades gerenciadas + MapStruct) com as projeções
+ * em records (BarberSummary, CustomerSummary, ActivitySummary).
+ *
+ * Para cada listagem mede statements preparados, entidades hidratadas e a mediana do tempo de várias
+ * rodadas. O tempo só vai para o log (varia com a máquina); as asserções ficam nos contadores, que são
+ * determinísticos: a projeção não hidrata nenhuma entidade e não usa mais statements que o caminho antigo.
+ *
+ * Fica fora do "mvn test" (tag benchmark); executar com "mvn test -Pbenchmark".
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProjectionListingBenchmarkTest extends IntegrationTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectionListingBenchmarkTest.class);
+
+    private static final int ROWS = 500;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 15;
+
+    @Autowired
+    private BarberMapper barberMapper;
+    @Autowired
+    private CustomerMapper customerMapper;
+    @Autowired
+    private ActivityMapper activityMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Barbershop barbershop;
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        barbershop = newBarbershop();
+        final Activity[] activities = new Activity[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            activities[i] = newActivity(barbershop, 30);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            newBarber(barbershop, activities[i]);
+            newCustomer();
+        }
+    }
+
+    @Test
+    void barberListing() {
+        final Measurement entities = measure("barbers (entidades)", () -> barberRepository.findAll(Sort.by("id")).stream()
+                .map(barberMapper::toDTO)
+                .map(BarberDTO::getId)
+                .toList());
+        final Measurement projection = measure("barbers (projeção)", () -> barberRepository.findAllSummaries().stream()
+                .map(barberMapper::toDTO)
+                .map(BarberDTO::getId)
+                .toList());
+
+        assertSameResultWithoutEntities(entities, projection);
+    }
+
+    @Test
+    void customerListing() {
+        final Measurement entities = measure("customers (entidades)", () -> customerRepository.findAll(Sort.by("id")).stream()
+                .map(customerMapper::toDTO)
+                .map(CustomerDTO::getId)
+                .toList());
+        final Measurement projection = measure("customers (projeção)", () -> customerRepository.findAllSummaries().stream()
+                .map(customerMapper::toDTO)
+                .map(CustomerDTO::getId)
+                .toList());
+
+        assertSameResultWithoutEntities(entities, projection);
+    }
+
+    @Test
+    void activityListing() {
+        final UUID barbershopId = barbershop.getId();
+        final Measurement entities = measure("activities (entidades)", () -> activityRepository.findAll().stream()
+                .filter(activity -> activity.getBarbershop().getId().equals(barbershopId))
+                .map(activityMapper::toDTO)
+                .map(ActivityDTO::getId)
+                .sorted()
+                .toList());
+        final Measurement projection = measure("activities (projeção)", () -> activityRepository.findSummariesByBarbershopId(barbershopId).stream()
+                .map(activityMapper::toDTO)
+                .map(ActivityDTO::getId)
+                .sorted()
+                .toList());
+
+        assertSameResultWithoutEntities(entities, projection);
+    }
+
+    private void assertSameResultWithoutEntities(final Measurement entities, final Measurement projection) {
+        assertThat(projection.ids()).isEqualTo(entities.ids());
+        assertThat(projection.ids()).hasSizeGreaterThanOrEqualTo(ROWS);
+        assertThat(entities.entitiesLoaded()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(projection.entitiesLoaded()).isZero();
+        assertThat(projection.statements()).isLessThanOrEqualTo(entities.statements());
+    }
+
+    /**
+     * Roda a listagem em uma transação somente leitura (como nos serviços) e mede a última rodada
+     * (contadores) e a mediana das rodadas medidas (tempo).
+     */
+    private Measurement measure(final String label, final Supplier<List<UUID>> listing) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            transactionTemplate.execute(status -> listing.get());
+        }
+
+        final Statistics statistics = statistics();
+        final long[] elapsedNanos = new long[MEASURED_ROUNDS];
+        List<UUID> ids = List.of();
+        long statements = 0;
+        long entitiesLoaded = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            statistics.clear();
+            final long start = System.nanoTime();
+            ids = transactionTemplate.execute(status -> listing.get());
+            elapsedNanos[i] = System.nanoTime() - start;
+            statements = statistics.getPrepareStatementCount();
+            // Entidades lidas do ResultSet ou do cache de segundo nível (Activity e Barbershop são @Cache)
+            entitiesLoaded = statistics.getEntityLoadCount() + statistics.getSecondLevelCacheHitCount();
+        }
+        Arrays.sort(elapsedNanos);
+        final double medianMs = elapsedNanos[MEASURED_ROUNDS / 2] / 1_000_000.0;
+
+        log.info("{} linhas={} statements={} entidades={} mediana={} ms",
+                label, ids.size(), statements, entitiesLoaded, String.format("%.2f", medianMs));
+        return new Measurement(ids, statements, entitiesLoaded);
+    }
+
+    private record Measurement(List<UUID> ids, long statements, long entitiesLoaded) {
+    }
+}
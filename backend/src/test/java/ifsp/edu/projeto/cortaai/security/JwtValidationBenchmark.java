@@ -0,0 +1,200 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import ifsp.edu.projeto.cortaai.config.JwtAuthorizationFilter;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.model.Barbershop;
+import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.service.JwtTokenService;
+import ifsp.edu.projeto.cortaai.service.impl.JwtTokenServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autenticação do access token, antes e depois de montar a chave HMAC e o parser uma única vez:
+ *
+ * - validate*: JwtTokenServiceImpl.validateTokenAndGetClaims;
+ * - filter*: o JwtAuthorizationFilter inteiro sobre uma requisição com "Authorization: Bearer ...",
+ *   incluindo a montagem do AuthenticatedUser e a consulta ao TokenRevocationList.
+ *
+ * "PerCall" usa a implementação original (chave e parser montados a cada requisição); "Prebuilt" usa
+ * o JwtTokenServiceImpl atual. Roda com várias threads, como o filtro sob carga. Não faz parte do
+ * "mvn test"; executar pelo main (IDE) ou com "java -cp target/test-classes:&lt;classpath de teste&gt; ...JwtValidationBenchmark".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-32-bytes-for-hs256";
+    private static final long EXPIRATION_MS = 900_000;
+    // Revogações de outros usuários, para o filtro de Bloom não estar vazio
+    private static final int REVOKED_USERS = 1_000;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private String token;
+    private JwtTokenService perCallService;
+    private JwtTokenService prebuiltService;
+    private JwtAuthorizationFilter perCallFilter;
+    private JwtAuthorizationFilter prebuiltFilter;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        final JwtTokenServiceImpl tokenService = new JwtTokenServiceImpl(SECRET, EXPIRATION_MS);
+        prebuiltService = tokenService;
+        perCallService = new PerCallJwtTokenService(tokenService);
+
+        // Mesmas claims do token de um barbeiro dono
+        final Barbershop barbershop = new Barbershop();
+        barbershop.setId(UUID.randomUUID());
+        final Barber barber = new Barber();
+        barber.setId(UUID.randomUUID());
+        barber.setEmail("barbeiro@cortaai.com");
+        barber.setOwner(true);
+        barber.setBarbershop(barbershop);
+        token = tokenService.generateToken(barber);
+
+        final TokenRevocationList revocationList = new TokenRevocationList(EXPIRATION_MS, 100_000);
+        for (int i = 0; i < REVOKED_USERS; i++) {
+            revocationList.revokeUser(UUID.randomUUID());
+        }
+        perCallFilter = new JwtAuthorizationFilter(perCallService, revocationList, List.of());
+        prebuiltFilter = new JwtAuthorizationFilter(prebuiltService, revocationList, List.of());
+
+        // Sem autenticação, o benchmark do filtro mediria só o caminho de rejeição
+        if (authenticate(perCallFilter, new Exchange(token)) == null
+                || authenticate(prebuiltFilter, new Exchange(token)) == null) {
+            throw new IllegalStateException("O token do benchmark não foi autenticado pelo filtro");
+        }
+    }
+
+    /**
+     * Requisição e resposta por thread: os mocks do Spring não são thread-safe.
+     */
+    @State(Scope.Thread)
+    public static class Exchange {
+        private MockHttpServletRequest request;
+        private MockHttpServletResponse response;
+
+        public Exchange() {
+        }
+
+        Exchange(final String token) {
+            prepare(token);
+        }
+
+        @Setup
+        public void setUp(final JwtValidationBenchmark benchmark) {
+            prepare(benchmark.token);
+        }
+
+        private void prepare(final String token) {
+            request = new MockHttpServletRequest("GET", "/api/appointments/barber/me");
+            request.addHeader("Authorization", "Bearer " + token);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public Claims validatePerCall() {
+        return perCallService.validateTokenAndGetClaims(token);
+    }
+
+    @Benchmark
+    public Claims validatePrebuilt() {
+        return prebuiltService.validateTokenAndGetClaims(token);
+    }
+
+    @Benchmark
+    public Authentication filterPerCall(final Exchange exchange) throws ServletException, IOException {
+        return authenticate(perCallFilter, exchange);
+    }
+
+    @Benchmark
+    public Authentication filterPrebuilt(final Exchange exchange) throws ServletException, IOException {
+        return authenticate(prebuiltFilter, exchange);
+    }
+
+    private static Authentication authenticate(final JwtAuthorizationFilter filter, final Exchange exchange)
+            throws ServletException, IOException {
+        try {
+            filter.doFilter(exchange.request, exchange.response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            // O contexto é por thread: a próxima chamada precisa começar sem autenticação
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Validação como era antes: chave HMAC e parser montados a cada chamada.
+     * A geração de tokens é delegada à implementação atual (não é medida).
+     */
+    private static final class PerCallJwtTokenService implements JwtTokenService {
+
+        private final JwtTokenService delegate;
+
+        private PerCallJwtTokenService(final JwtTokenService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String generateToken(final Customer customer) {
+            return delegate.generateToken(customer);
+        }
+
+        @Override
+        public String generateToken(final Barber barber) {
+            return delegate.generateToken(barber);
+        }
+
+        @Override
+        public Claims validateTokenAndGetClaims(final String token) {
+            try {
+                final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+                return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,38 @@
+package ifsp.edu.projeto.cortaai.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A revogação de um usuário compara a emissão do token em milissegundos: o token renovado logo depois
+ * (no mesmo segundo) precisa valer, e os emitidos até a revogação não.
+ */
+class TokenRevocationListTest {
+
+    private final TokenRevocationList revocationList = new TokenRevocationList(900_000, 1_000);
+
+    @Test
+    void tokenIssuedRightAfterTheUserRevocationIsAccepted() {
+        final UUID userId = UUID.randomUUID();
+        final long issuedBefore = System.currentTimeMillis();
+        revocationList.revokeUser(userId);
+        final long issuedAfter = System.currentTimeMillis() + 1;
+
+        assertThat(revocationList.isRevoked(userId, UUID.randomUUID(), issuedBefore)).isTrue();
+        assertThat(revocationList.isRevoked(userId, UUID.randomUUID(), issuedAfter)).isFalse();
+        // Sem data de emissão não há como saber: trata como revogado
+        assertThat(revocationList.isRevoked(userId, UUID.randomUUID(), null)).isTrue();
+    }
+
+    @Test
+    void revokedTokenIdIsRejectedRegardlessOfIssueTime() {
+        final UUID tokenId = UUID.randomUUID();
+        revocationList.revokeToken(tokenId);
+
+        assertThat(revocationList.isRevoked(UUID.randomUUID(), tokenId, System.currentTimeMillis() + 60_000)).isTrue();
+        assertThat(revocationList.isRevoked(UUID.randomUUID(), UUID.randomUUID(), System.currentTimeMillis())).isFalse();
+    }
+}
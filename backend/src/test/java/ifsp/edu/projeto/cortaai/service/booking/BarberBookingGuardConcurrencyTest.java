@@ -0,0 +1,155 @@
+package ifsp.edu.projeto.cortaai.service.booking;
+
+import ifsp.edu.projeto.cortaai.dto.AppointmentRequestDTO;
+import ifsp.edu.projeto.cortaai.exception.ReferenceException;
+import ifsp.edu.projeto.cortaai.mapper.AppointmentMapper;
+import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.model.Barbershop;
+import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.service.AppointmentsService;
+import ifsp.edu.projeto.cortaai.service.availability.SlotHoldRegistry;
+import ifsp.edu.projeto.cortaai.service.impl.AppointmentsServiceImpl;
+import ifsp.edu.projeto.cortaai.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vários clientes tentam, ao mesmo tempo, o mesmo horário do mesmo barbeiro: o BarberBookingGuard
+ * precisa deixar passar exatamente um agendamento e recusar os demais como conflito.
+ */
+class BarberBookingGuardConcurrencyTest extends IntegrationTestSupport {
+
+    private static final int CALLERS = 200;
+
+    @Autowired
+    private AppointmentsService appointmentsService;
+
+    // Dependências para montar um segundo AppointmentsServiceImpl (outra "instância")
+    @Autowired
+    private AppointmentMapper appointmentMapper;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void onlyOneOfConcurrentBookingsForTheSameSlotSucceeds() throws Exception {
+        final Scenario scenario = scenario();
+
+        final List<Callable<Long>> calls = new ArrayList<>();
+        for (Customer customer : scenario.customers()) {
+            calls.add(() -> appointmentsService.create(scenario.request(), asCustomer(customer)));
+        }
+
+        assertOnlyOneSucceeds(scenario, calls);
+    }
+
+    /**
+     * Duas instâncias da aplicação não compartilham os locks em memória: cada uma tem o seu guard
+     * (com as suas faixas). Entre elas, só o SELECT ... FOR UPDATE na linha do barbeiro serializa as reservas.
+     */
+    @Test
+    void onlyOneSucceedsAcrossInstancesWithSeparateInMemoryLocks() throws Exception {
+        final Scenario scenario = scenario();
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final AppointmentsService instanceA = newInstance();
+        final AppointmentsService instanceB = newInstance();
+
+        final List<Callable<Long>> calls = new ArrayList<>();
+        for (int i = 0; i < scenario.customers().size(); i++) {
+            final AppointmentsService instance = i % 2 == 0 ? instanceA : instanceB;
+            final Customer customer = scenario.customers().get(i);
+            // Montados à mão, sem o proxy do Spring: a transação do create vem do template
+            calls.add(() -> transactionTemplate.execute(status -> instance.create(scenario.request(), asCustomer(customer))));
+        }
+
+        assertOnlyOneSucceeds(scenario, calls);
+    }
+
+    private AppointmentsService newInstance() {
+        final BarberBookingGuard guard = new BarberBookingGuard(barberRepository, 256, 5000);
+        return new AppointmentsServiceImpl(appointmentsRepository, barberRepository, customerRepository,
+                barbershopRepository, activityRepository, appointmentMapper, publisher, slotHoldRegistry, guard);
+    }
+
+    private void assertOnlyOneSucceeds(final Scenario scenario, final List<Callable<Long>> calls) throws Exception {
+        // Todas as threads ficam prontas e disparam juntas
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(calls.size());
+        final List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (Callable<Long> call : calls) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            int rejected = 0;
+            for (Future<Long> result : results) {
+                try {
+                    assertThat(result.get(60, TimeUnit.SECONDS)).isNotNull();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    // Os perdedores recebem o erro de conflito, nunca uma falha de banco
+                    assertThat(e.getCause()).isInstanceOf(ReferenceException.class);
+                    rejected++;
+                }
+            }
+
+            assertThat(succeeded).isEqualTo(1);
+            assertThat(rejected).isEqualTo(calls.size() - 1);
+            assertThat(appointmentsRepository.findWithActivitiesByBarberId(scenario.barberId())).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Um barbeiro, CALLERS clientes e o pedido de todos para o mesmo horário.
+     */
+    private Scenario scenario() {
+        final Barbershop barbershop = newBarbershop();
+        final Activity haircut = newActivity(barbershop, 30);
+        final Barber barber = newBarber(barbershop, haircut);
+        final List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            customers.add(newCustomer());
+        }
+
+        final AppointmentRequestDTO request = new AppointmentRequestDTO();
+        request.setBarbershopId(barbershop.getId());
+        request.setBarberId(barber.getId());
+        request.setActivityIds(List.of(haircut.getId()));
+        request.setStartTime(OffsetDateTime.of(LocalDate.now().plusDays(7), LocalTime.of(10, 0), ZoneOffset.ofHours(-3)));
+        return new Scenario(barber.getId(), customers, request);
+    }
+
+    private record Scenario(UUID barberId, List<Customer> customers, AppointmentRequestDTO request) {
+    }
+}
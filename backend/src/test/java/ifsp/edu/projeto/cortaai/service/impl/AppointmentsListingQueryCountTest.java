@@ -0,0 +1,105 @@
+package ifsp.edu.projeto.cortaai.service.impl;
+
+import ifsp.edu.projeto.cortaai.dto.AppointmentFeedQueryDTO;
+import ifsp.edu.projeto.cortaai.dto.AppointmentsDTO;
+import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.model.Barbershop;
+import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.service.AppointmentsService;
+import ifsp.edu.projeto.cortaai.support.IntegrationTestSupport;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As listagens de agendamentos carregam os serviços (activities) na mesma query (@EntityGraph).
+ * Aqui o número de statements preparados é medido com 1 e com muitos agendamentos: se houvesse N+1,
+ * ele cresceria com a quantidade de linhas.
+ */
+class AppointmentsListingQueryCountTest extends IntegrationTestSupport {
+
+    private static final int MANY = 20;
+
+    @Autowired
+    private AppointmentsService appointmentsService;
+
+    @Test
+    void barberListingUsesOneStatementRegardlessOfSize() {
+        final Scenario single = scenario(1);
+        final Scenario many = scenario(MANY);
+
+        final long singleCount = countStatements(() -> appointmentsService.findForBarber(asBarber(single.barber())), 1);
+        final long manyCount = countStatements(() -> appointmentsService.findForBarber(asBarber(many.barber())), MANY);
+
+        assertThat(manyCount).isEqualTo(singleCount).isEqualTo(1);
+    }
+
+    @Test
+    void customerListingUsesOneStatementRegardlessOfSize() {
+        final Scenario single = scenario(1);
+        final Scenario many = scenario(MANY);
+
+        final long singleCount = countStatements(() -> appointmentsService.findForCustomer(asCustomer(single.customer())), 1);
+        final long manyCount = countStatements(() -> appointmentsService.findForCustomer(asCustomer(many.customer())), MANY);
+
+        assertThat(manyCount).isEqualTo(singleCount).isEqualTo(1);
+    }
+
+    @Test
+    void paginatedBarberListingUsesTwoStatementsRegardlessOfSize() {
+        final Scenario single = scenario(1);
+        final Scenario many = scenario(MANY);
+        final AppointmentFeedQueryDTO query = new AppointmentFeedQueryDTO();
+        query.setLimit(MANY);
+
+        // Uma query para os ids da página e outra para as entidades (com os serviços)
+        final long singleCount = countStatements(
+                () -> appointmentsService.findPageForBarber(asBarber(single.barber()), query).getItems(), 1);
+        final long manyCount = countStatements(
+                () -> appointmentsService.findPageForBarber(asBarber(many.barber()), query).getItems(), MANY);
+
+        assertThat(manyCount).isEqualTo(singleCount).isEqualTo(2);
+    }
+
+    private long countStatements(final Supplier<List<AppointmentsDTO>> listing, final int expectedSize) {
+        final Statistics statistics = statistics();
+        statistics.clear();
+        final List<AppointmentsDTO> appointments = listing.get();
+        final long count = statistics.getPrepareStatementCount();
+
+        assertThat(appointments).hasSize(expectedSize);
+        // Os serviços precisam ter vindo junto (o mapper os lê)
+        assertThat(appointments).allSatisfy(dto -> assertThat(dto.getActivityIds()).hasSize(2));
+        return count;
+    }
+
+    /**
+     * Um barbeiro e um cliente com {@code size} agendamentos, cada um com dois serviços.
+     */
+    private Scenario scenario(final int size) {
+        final Barbershop barbershop = newBarbershop();
+        final Activity haircut = newActivity(barbershop, 30);
+        final Activity beard = newActivity(barbershop, 15);
+        final Barber barber = newBarber(barbershop, haircut, beard);
+        final Customer customer = newCustomer();
+
+        final OffsetDateTime first = OffsetDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(9, 0), ZoneOffset.ofHours(-3));
+        for (int i = 0; i < size; i++) {
+            newAppointment(barber, customer, first.plusDays(i), haircut, beard);
+        }
+        return new Scenario(barber, customer);
+    }
+
+    private record Scenario(Barber barber, Customer customer) {
+    }
+}
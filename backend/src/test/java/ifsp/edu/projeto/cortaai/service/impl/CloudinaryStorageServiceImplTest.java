@@ -0,0 +1,164 @@
+package ifsp.edu.projeto.cortaai.service.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ifsp.edu.projeto.cortaai.dto.UploadResultDTO;
+import ifsp.edu.projeto.cortaai.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Uploads contra um servidor HTTP local no lugar da API do Cloudinary (upload_prefix aponta para ele).
+ * Verifica que o arquivo vai para a rede em streaming (sem ser carregado no heap) e que o orçamento
+ * de bytes em upload (max-in-flight) responde 503 quando é ultrapassado.
+ */
+class CloudinaryStorageServiceImplTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+
+    // Bytes do último corpo recebido pelo stub
+    private final AtomicLong receivedBytes = new AtomicLong();
+    // Uma permissão por requisição que chegou ao stub
+    private final Semaphore requestsReceived = new Semaphore(0);
+    // Enquanto não liberado, o stub segura a resposta (upload "em andamento")
+    private volatile CountDownLatch holdResponses = new CountDownLatch(0);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::handleUpload);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        holdResponses.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void uploadStreamsTheFileInsteadOfBufferingIt() throws Exception {
+        final CloudinaryStorageServiceImpl storage = storage(DataSize.ofMegabytes(256));
+        // Primeiro upload pequeno: carrega classes e aquece o cliente HTTP fora da medição
+        storage.uploadFile(file("warmup", 1024), "barbers");
+
+        final long size = 64L * MB;
+        final Path file = file("large", size);
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        final UploadResultDTO result = storage.uploadFile(file, "barbers");
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertThat(result.getSecureUrl()).startsWith("https://");
+        // O corpo multipart inteiro chegou ao stub...
+        assertThat(receivedBytes.get()).isGreaterThanOrEqualTo(size);
+        // ...sem que a thread do upload tenha alocado algo perto do tamanho do arquivo
+        assertThat(allocated).isLessThan(size / 4);
+    }
+
+    @Test
+    void uploadBeyondTheInFlightBudgetIsRejectedWith503() throws Exception {
+        final CloudinaryStorageServiceImpl storage = storage(DataSize.ofMegabytes(1));
+        final Path first = file("first", 512 * 1024);
+        final Path second = file("second", 768 * 1024);
+
+        holdResponses = new CountDownLatch(1);
+        final ExecutorService uploader = Executors.newSingleThreadExecutor();
+        try {
+            final Future<UploadResultDTO> inFlight = uploader.submit(() -> storage.uploadFile(first, "barbers"));
+            assertThat(requestsReceived.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+
+            // 512 KB em andamento + 768 KB passa de 1 MB: recusado na hora, sem chegar ao Cloudinary
+            assertThatThrownBy(() -> storage.uploadFile(second, "barbers"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            assertThat(requestsReceived.availablePermits()).isZero();
+
+            // Terminado o primeiro, o orçamento é devolvido e o segundo passa
+            holdResponses.countDown();
+            assertThat(inFlight.get(10, TimeUnit.SECONDS).getPublicId()).isNotBlank();
+            assertThat(storage.uploadFile(second, "barbers").getPublicId()).isNotBlank();
+        } finally {
+            uploader.shutdownNow();
+        }
+    }
+
+    private CloudinaryStorageServiceImpl storage(final DataSize maxInFlight) {
+        final Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "test-cloud",
+                "api_key", "test-key",
+                "api_secret", "test-secret",
+                "upload_prefix", "http://127.0.0.1:" + server.getAddress().getPort()));
+        return new CloudinaryStorageServiceImpl(cloudinary, maxInFlight, 0);
+    }
+
+    private Path file(final String name, final long size) throws IOException {
+        final Path file = tempDir.resolve(name + ".jpg");
+        final byte[] block = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += block.length) {
+                out.write(block, 0, (int) Math.min(block.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    private void handleUpload(final HttpExchange exchange) throws IOException {
+        long total = 0;
+        try (InputStream body = exchange.getRequestBody()) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        receivedBytes.set(total);
+        requestsReceived.release();
+        try {
+            holdResponses.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final byte[] response = ("{\"public_id\":\"barbers/stub\",\"secure_url\":\"https://res.cloudinary.test/barbers/stub.jpg\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ifsp.edu.projeto.cortaai.support;
+
+import ifsp.edu.projeto.cortaai.model.Activity;
+import ifsp.edu.projeto.cortaai.model.Appointments;
+import ifsp.edu.projeto.cortaai.model.Barber;
+import ifsp.edu.projeto.cortaai.model.Barbershop;
+import ifsp.edu.projeto.cortaai.model.Customer;
+import ifsp.edu.projeto.cortaai.model.enums.AppointmentStatus;
+import ifsp.edu.projeto.cortaai.repository.ActivityRepository;
+import ifsp.edu.projeto.cortaai.repository.AppointmentsRepository;
+import ifsp.edu.projeto.cortaai.repository.BarberRepository;
+import ifsp.edu.projeto.cortaai.repository.BarbershopRepository;
+import ifsp.edu.projeto.cortaai.repository.CustomerRepository;
+import ifsp.edu.projeto.cortaai.security.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base dos testes de integração: sobe a aplicação sobre o H2 (perfil "test") e oferece atalhos para
+ * montar barbearias, barbeiros, clientes e agendamentos. O contexto (e o banco) é compartilhado entre
+ * as classes de teste, então cada cenário cria seus próprios dados, com e-mails/documentos únicos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+
+    // Sequência para e-mails, telefones, CPFs e CNPJs únicos entre os testes
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    protected BarbershopRepository barbershopRepository;
+    @Autowired
+    protected BarberRepository barberRepository;
+    @Autowired
+    protected CustomerRepository customerRepository;
+    @Autowired
+    protected ActivityRepository activityRepository;
+    @Autowired
+    protected AppointmentsRepository appointmentsRepository;
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    protected Barbershop newBarbershop() {
+        final long n = SEQUENCE.incrementAndGet();
+        final Barbershop barbershop = new Barbershop();
+        barbershop.setName("Barbearia " + n);
+        barbershop.setCnpj(digits(n, 14));
+        barbershop.setAddress("Rua " + n);
+        return barbershopRepository.save(barbershop);
+    }
+
+    protected Activity newActivity(final Barbershop barbershop, final int durationMinutes) {
+        final Activity activity = new Activity();
+        activity.setBarbershop(barbershop);
+        activity.setActivityName("Serviço " + SEQUENCE.incrementAndGet());
+        activity.setPrice(new BigDecimal("50.00"));
+        activity.setDurationMinutes(durationMinutes);
+        return activityRepository.save(activity);
+    }
+
+    protected Barber newBarber(final Barbershop barbershop, final Activity... activities) {
+        final long n = SEQUENCE.incrementAndGet();
+        final Barber barber = new Barber();
+        barber.setName("Barbeiro " + n);
+        barber.setEmail("barbeiro" + n + "@teste.com");
+        barber.setTell(digits(n, 11));
+        barber.setDocumentCPF(digits(n, 11));
+        barber.setPassword("{noop}senha");
+        barber.setBarbershop(barbershop);
+        barber.setWorkStartTime(LocalTime.of(8, 0));
+        barber.setWorkEndTime(LocalTime.of(20, 0));
+        barber.setActivities(new HashSet<>(Set.of(activities)));
+        return barberRepository.save(barber);
+    }
+
+    protected Customer newCustomer() {
+        final long n = SEQUENCE.incrementAndGet();
+        final Customer customer = new Customer();
+        customer.setName("Cliente " + n);
+        customer.setEmail("cliente" + n + "@teste.com");
+        customer.setTell(digits(n, 11));
+        customer.setDocumentCPF(digits(n, 11));
+        customer.setPassword("{noop}senha");
+        return customerRepository.save(customer);
+    }
+
+    protected Appointments newAppointment(final Barber barber, final Customer customer,
+                                          final OffsetDateTime startTime, final Activity... activities) {
+        final Appointments appointment = new Appointments();
+        appointment.setBarbershop(barber.getBarbershop());
+        appointment.setBarber(barber);
+        appointment.setCustomer(customer);
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(startTime.plusMinutes(30));
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setActivities(new HashSet<>(Set.of(activities)));
+        return appointmentsRepository.save(appointment);
+    }
+
+    protected static AuthenticatedUser asCustomer(final Customer customer) {
+        return new AuthenticatedUser(customer.getId(), customer.getEmail(), AuthenticatedUser.CUSTOMER,
+                false, null, UUID.randomUUID());
+    }
+
+    protected static AuthenticatedUser asBarber(final Barber barber) {
+        return new AuthenticatedUser(barber.getId(), barber.getEmail(), AuthenticatedUser.BARBER,
+                barber.isOwner(), barber.getBarbershop() != null ? barber.getBarbershop().getId() : null,
+                UUID.randomUUID());
+    }
+
+    private static String digits(final long n, final int length) {
+        final String value = Long.toString(n);
+        return "0".repeat(Math.max(0, length - value.length())) + value.substring(Math.max(0, value.length() - length));
+    }
+}
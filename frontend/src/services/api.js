@@ -14,4 +14,51 @@ api.interceptors.request.use(async (config) => {
     return config;
 });
 
+// Renovação em andamento: requisições que recebem 401 ao mesmo tempo esperam a mesma renovação.
+// O refresh token é de uso único (reenviar um já usado encerra todas as sessões), então ele nunca
+// pode ser trocado duas vezes em paralelo.
+let refreshPromise = null;
+
+const refreshSession = async () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+        throw new Error('Sem refresh token');
+    }
+    const url = localStorage.getItem('role') === 'ROLE_BARBER' ? '/barbers/refresh' : '/customers/refresh';
+
+    // Axios "puro": a chamada de refresh não passa pelos interceptadores desta instância
+    const response = await axios.post(`/api${url}`, { refreshToken });
+    localStorage.setItem('token', response.data.token);
+    localStorage.setItem('refreshToken', response.data.refreshToken);
+    return response.data.token;
+};
+
+// Token de acesso expirado (401): renova a sessão e repete a requisição uma única vez
+api.interceptors.response.use(
+    (response) => response,
+    async (error) => {
+        const original = error.config;
+        if (error.response?.status !== 401 || !original || original._retry) {
+            return Promise.reject(error);
+        }
+        original._retry = true;
+
+        try {
+            if (!refreshPromise) {
+                refreshPromise = refreshSession().finally(() => {
+                    refreshPromise = null;
+                });
+            }
+            const token = await refreshPromise;
+            original.headers.Authorization = `Bearer ${token}`;
+            return api(original);
+        } catch {
+            // Refresh token ausente, expirado ou revogado: a sessão acabou
+            localStorage.clear();
+            window.location.href = '/login';
+            return Promise.reject(error);
+        }
+    }
+);
+
 export default api;
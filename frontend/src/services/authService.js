@@ -16,6 +16,8 @@ export const loginUser = async (email, password, userType = 'customer') => {
     // 2. Salva os dados se o login der certo
     if (response.data.token) {
         localStorage.setItem('token', response.data.token);
+        // O token de acesso é curto; o refresh token renova a sessão quando ele expira (ver api.js)
+        localStorage.setItem('refreshToken', response.data.refreshToken);
         
         // 3. CORREÇÃO CRÍTICA: O Back-end não manda a 'role' explícita no DTO.
         // Precisamos definir manualmente para o appointmentService funcionar.
@@ -43,7 +45,18 @@ export const registerCustomer = async (userData) => {
 };
 
 // Função de Logout
-export const logoutUser = () => {
+export const logoutUser = async () => {
+    // Revoga no back-end o token de acesso e o refresh token; se falhar, a sessão local é encerrada mesmo assim
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+        const url = localStorage.getItem('role') === 'ROLE_BARBER' ? '/barbers/me/logout' : '/customers/me/logout';
+        try {
+            // _retry: com o token de acesso expirado não vale renovar a sessão só para encerrá-la
+            await api.post(url, { refreshToken }, { _retry: true });
+        } catch {
+            // Ignorado: o token pode já ter expirado
+        }
+    }
     localStorage.clear(); // Limpa tudo de uma vez
     window.location.href = '/login';
 };